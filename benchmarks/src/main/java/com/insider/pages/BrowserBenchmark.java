@@ -0,0 +1,37 @@
+package com.insider.pages;
+
+import com.insider.driver.DriverFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Shared lifecycle for the benchmarks: one headless Chrome per trial, built with the same DriverFactory (and thus
+ * the same options and timeouts) the test suite uses. The one exception is the page load strategy, pinned to normal
+ * so driver.get returns with the fixture fully loaded and no trial measures a page that is still being parsed.
+ */
+public abstract class BrowserBenchmark {
+    protected WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void startBrowser() {
+        System.setProperty("headless", "true");
+        System.setProperty("driver.pageLoadStrategy", "normal");
+        DriverFactory factory = new DriverFactory();
+        driver = factory.create(factory.keyFor("chrome"));
+        openFixture();
+    }
+
+    @TearDown(Level.Trial)
+    public void quitBrowser() {
+        if (driver != null) {
+            driver.quit();
+        }
+    }
+
+    /**
+     * Loads the fixture page the benchmark works on.
+     */
+    protected abstract void openFixture();
+}
@@ -0,0 +1,82 @@
+package com.insider.pages;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Static HTML pages that mirror the structure the page objects expect on the live site.
+ * They are generated into a temp folder and opened over file://, so benchmarks measure WebDriver and the page
+ * objects rather than the network.
+ */
+final class Fixtures {
+    private static final Path DIR;
+
+    static {
+        try {
+            DIR = Files.createTempDirectory("insider-bench");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Fixtures() {
+    }
+
+    /**
+     * Job list page with {@code count} rows matching the QA / Istanbul filter, plus the two filter dropdowns.
+     * {@code window.renderJobs(delayMs)} clears the list and renders it again after the delay, for wait benchmarks.
+     */
+    static String jobList(int count) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html><html><head><meta charset='UTF-8'><title>Jobs</title></head><body>");
+        html.append("<select id='filter-by-location'><option>All</option><option>Istanbul, Turkiye</option></select>");
+        html.append("<select id='filter-by-department'><option>All</option><option>Quality Assurance</option></select>");
+        html.append("<div id='jobs-list'></div>");
+        html.append("<script>");
+        html.append("var COUNT = ").append(count).append(";");
+        html.append("function row(i) {");
+        html.append("  return \"<div class='position-list-item'>\" +");
+        html.append("    \"<p class='position-title'>Senior Software Quality Assurance Engineer \" + i + \"</p>\" +");
+        html.append("    \"<span class='position-department'>Quality Assurance</span>\" +");
+        html.append("    \"<div class='position-location'>Istanbul, Turkiye</div>\" +");
+        html.append("    \"<a class='btn' target='_blank' href='https://jobs.lever.co/useinsider/\" + i + \"'>View Role</a></div>\";");
+        html.append("}");
+        html.append("function renderJobs(delayMs) {");
+        html.append("  var list = document.getElementById('jobs-list'); list.innerHTML = '';");
+        html.append("  setTimeout(function() { var out = []; for (var i = 0; i < COUNT; i++) out.push(row(i)); list.innerHTML = out.join(''); }, delayMs);");
+        html.append("}");
+        html.append("renderJobs(0);");
+        html.append("</script></body></html>");
+        return write("jobs-" + count + ".html", html.toString());
+    }
+
+    /**
+     * Home page with the header, main area, the 11 homepage-* sections and the footer used by HomePage.
+     */
+    static String homePage() {
+        String[] sections = {"hero", "social-proof", "core-differentiators", "capabilities", "insider-one-ai",
+                "channels", "case-study", "analyst", "integrations", "resources", "call-to-action"};
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html><html><head><meta charset='UTF-8'><title>Insider Home</title>");
+        html.append("<style>section { height: 600px; border-bottom: 1px solid #ccc; }</style></head><body>");
+        html.append("<nav id='navigation'>Navigation</nav><main class='flexible-layout'>");
+        for (String section : sections) {
+            html.append("<section class='homepage-").append(section).append("'><h2>").append(section).append("</h2></section>");
+        }
+        html.append("</main><footer id='footer'>Footer</footer></body></html>");
+        return write("home.html", html.toString());
+    }
+
+    private static String write(String name, String content) {
+        Path file = DIR.resolve(name);
+        try {
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file.toUri().toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.insider.pages;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the job list: element by element (what verifyJobDetails used to do per row) versus one bulk snapshot script.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JobListBenchmark extends BrowserBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int jobs;
+
+    private QAJobsPage page;
+
+    @Override
+    protected void openFixture() {
+        driver.get(Fixtures.jobList(jobs));
+        page = new QAJobsPage(driver);
+    }
+
+    @Benchmark
+    public void elementByElement(Blackhole bh) {
+        for (WebElement job : page.findAll(By.className("position-list-item"))) {
+            bh.consume(text(job.findElement(By.className("position-title"))));
+            bh.consume(text(job.findElement(By.className("position-department"))));
+            bh.consume(text(job.findElement(By.className("position-location"))));
+            bh.consume(job.findElement(By.cssSelector("a.btn")).getAttribute("href"));
+        }
+    }
+
+    @Benchmark
+    public List<JobPosting> bulkSnapshot() {
+        return page.snapshotJobs();
+    }
+
+    // Same getText + textContent fallback as QAJobsPage.getElementText
+    private static String text(WebElement element) {
+        String text = element.getText().trim();
+        if (text.isEmpty()) {
+            text = element.getAttribute("textContent").trim();
+        }
+        return text;
+    }
+}
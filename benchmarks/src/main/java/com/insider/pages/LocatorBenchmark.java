@@ -0,0 +1,65 @@
+package com.insider.pages;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locator strategies for the 11 homepage-* sections (className vs CSS vs XPath), plus the full
+ * HomePage.verifyMainBlocksLoaded check as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LocatorBenchmark extends BrowserBenchmark {
+
+    private static final String[] SECTIONS = {"hero", "social-proof", "core-differentiators", "capabilities",
+            "insider-one-ai", "channels", "case-study", "analyst", "integrations", "resources", "call-to-action"};
+
+    private HomePage page;
+
+    @Override
+    protected void openFixture() {
+        driver.get(Fixtures.homePage());
+        page = new HomePage(driver);
+    }
+
+    @Benchmark
+    public void byClassName(Blackhole bh) {
+        for (String section : SECTIONS) {
+            bh.consume(driver.findElement(By.className("homepage-" + section)));
+        }
+    }
+
+    @Benchmark
+    public void byCssSelector(Blackhole bh) {
+        for (String section : SECTIONS) {
+            bh.consume(driver.findElement(By.cssSelector(".homepage-" + section)));
+        }
+    }
+
+    @Benchmark
+    public void byXPath(Blackhole bh) {
+        for (String section : SECTIONS) {
+            bh.consume(driver.findElement(By.xpath("//*[contains(concat(' ', normalize-space(@class), ' '), ' homepage-" + section + " ')]")));
+        }
+    }
+
+    @Benchmark
+    public void verifyMainBlocksLoaded() {
+        page.verifyMainBlocksLoaded();
+    }
+}
@@ -0,0 +1,61 @@
+package com.insider.pages;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waiting for a job list that renders {@code renderDelayMs} after it was cleared: WebDriverWait polling from Java
+ * versus the in-browser BrowserWait. The difference between the score and the render delay is the wait overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WaitBenchmark extends BrowserBenchmark {
+
+    private static final int JOBS = 100;
+
+    @Param({"50", "300"})
+    public int renderDelayMs;
+
+    private QAJobsPage page;
+
+    @Override
+    protected void openFixture() {
+        driver.get(Fixtures.jobList(JOBS));
+        page = new QAJobsPage(driver);
+    }
+
+    @Benchmark
+    public Object webDriverWaitPolling() {
+        rerender();
+        return new WebDriverWait(driver, Duration.ofSeconds(10))
+                .until(d -> d.findElements(By.className("position-list-item")).size() >= JOBS);
+    }
+
+    @Benchmark
+    public int browserWait() {
+        rerender();
+        return page.browserWait.untilStableCount(".position-list-item", JOBS, Duration.ZERO, Duration.ofSeconds(10));
+    }
+
+    private void rerender() {
+        ((JavascriptExecutor) driver).executeScript("renderJobs(arguments[0]);", renderDelayMs);
+    }
+}
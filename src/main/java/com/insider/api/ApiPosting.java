@@ -0,0 +1,45 @@
+package com.insider.api;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One posting as returned by the Lever postings API the careers page renders its job list from.
+ *
+ * @param allLocations every location the posting is open in, including {@code location}
+ * @param hostedUrl    the posting page, which the job list links to from 'View Role'
+ */
+public record ApiPosting(String id, String title, String location, List<String> allLocations, String department,
+                         String team, String hostedUrl) {
+
+    /**
+     * True if the posting would be listed under the careers page filters: the location is one of its locations and
+     * the department is its department or team (the careers page shows Lever's team as the department).
+     */
+    public boolean matches(String locationFilter, String departmentFilter) {
+        boolean locationMatch = locationFilter.equals(location) || allLocations.contains(locationFilter);
+        boolean departmentMatch = departmentFilter.equals(department) || departmentFilter.equals(team);
+        return locationMatch && departmentMatch;
+    }
+
+    @SuppressWarnings("unchecked")
+    static ApiPosting fromJson(Map<String, Object> posting) {
+        Map<String, Object> categories = (Map<String, Object>) posting.getOrDefault("categories", Map.of());
+        String location = string(categories.get("location"));
+        List<String> allLocations = categories.get("allLocations") instanceof List
+                ? ((List<Object>) categories.get("allLocations")).stream().map(ApiPosting::string).toList()
+                : List.of(location);
+        return new ApiPosting(
+                string(posting.get("id")),
+                string(posting.get("text")),
+                location,
+                allLocations,
+                string(categories.get("department")),
+                string(categories.get("team")),
+                string(posting.get("hostedUrl")));
+    }
+
+    private static String string(Object value) {
+        return value == null ? "" : String.valueOf(value).trim();
+    }
+}
@@ -0,0 +1,78 @@
+package com.insider.api;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Just enough HTML reading to pull the text out of an element found by its classes, without a DOM.
+ * Handles nested elements with the same tag name, strips inner tags and decodes the common entities.
+ */
+final class HtmlText {
+    private static final Pattern START_TAG = Pattern.compile("<([a-zA-Z][a-zA-Z0-9-]*)\\b([^>]*)>");
+    private static final Pattern CLASS_ATTRIBUTE = Pattern.compile("\\bclass\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern NUMERIC_ENTITY = Pattern.compile("&#(x?)([0-9a-fA-F]+);");
+
+    private HtmlText() {
+    }
+
+    /**
+     * Text content of the first element whose class attribute contains all of {@code classes}, with whitespace
+     * collapsed like innerText. Empty if there is no such element.
+     */
+    static String ofFirstElementWithClasses(String html, String... classes) {
+        List<String> wanted = Arrays.asList(classes);
+        Matcher start = START_TAG.matcher(html);
+        while (start.find()) {
+            Matcher classAttribute = CLASS_ATTRIBUTE.matcher(start.group(2));
+            if (!classAttribute.find()) {
+                continue;
+            }
+            String value = classAttribute.group(1) != null ? classAttribute.group(1)
+                    : classAttribute.group(2) != null ? classAttribute.group(2) : classAttribute.group(3);
+            Set<String> tokens = new HashSet<>(Arrays.asList(value.trim().split("\\s+")));
+            if (tokens.containsAll(wanted)) {
+                int end = findClose(html, start.group(1), start.end());
+                return text(html.substring(start.end(), end));
+            }
+        }
+        return "";
+    }
+
+    // Index of the closing tag that matches an element opened just before {@code from}, or the end of the document
+    private static int findClose(String html, String tagName, int from) {
+        Matcher tags = Pattern.compile("<(/?)" + Pattern.quote(tagName) + "\\b[^>]*>", Pattern.CASE_INSENSITIVE).matcher(html);
+        tags.region(from, html.length());
+        int depth = 1;
+        while (tags.find()) {
+            if (tags.group(1).isEmpty()) {
+                if (!tags.group().endsWith("/>")) {
+                    depth++;
+                }
+            } else if (--depth == 0) {
+                return tags.start();
+            }
+        }
+        return html.length();
+    }
+
+    private static String text(String innerHtml) {
+        String text = TAG.matcher(innerHtml).replaceAll(" ");
+        text = text.replace("&nbsp;", " ").replace("&lt;", "<").replace("&gt;", ">")
+                .replace("&quot;", "\"").replace("&#39;", "'").replace("&apos;", "'");
+        Matcher entity = NUMERIC_ENTITY.matcher(text);
+        StringBuilder decoded = new StringBuilder();
+        while (entity.find()) {
+            int codePoint = Integer.parseInt(entity.group(2), entity.group(1).isEmpty() ? 10 : 16);
+            entity.appendReplacement(decoded, Matcher.quoteReplacement(new String(Character.toChars(codePoint))));
+        }
+        entity.appendTail(decoded);
+        // &amp; last, so an escaped entity such as &amp;lt; stays literal
+        return decoded.toString().replace("&amp;", "&").replaceAll("\\s+", " ").trim();
+    }
+}
@@ -0,0 +1,79 @@
+package com.insider.api;
+
+import com.insider.fixtures.SiteUrls;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the postings API behind the careers page job list directly (-Djobs.api.url, Lever's public postings
+ * endpoint by default). The response is fetched once per run and shared, since the same list backs every check.
+ * The URL goes through {@link SiteUrls#resolve}, so replay mode serves it from the recorded fixtures.
+ */
+public final class JobsApiClient {
+    private static final Logger logger = LoggerFactory.getLogger(JobsApiClient.class);
+
+    private static final String DEFAULT_URL = "https://api.lever.co/v0/postings/useinsider?mode=json";
+    private static final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private static final Map<String, List<ApiPosting>> cache = new ConcurrentHashMap<>();
+
+    private JobsApiClient() {
+    }
+
+    public static List<ApiPosting> postings() {
+        return postings(System.getProperty("jobs.api.url", DEFAULT_URL));
+    }
+
+    /**
+     * All postings from {@code url}, fetched on the first call and cached for the rest of the run.
+     *
+     * @throws IllegalStateException if the API could not be read
+     */
+    public static List<ApiPosting> postings(String url) {
+        return cache.computeIfAbsent(SiteUrls.resolve(url), JobsApiClient::fetch);
+    }
+
+    private static List<ApiPosting> fetch(String url) {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(HttpRequest.newBuilder(URI.create(url))
+                            .timeout(Duration.ofSeconds(30))
+                            .header("Accept", "application/json")
+                            .GET()
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not fetch jobs API " + url + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching jobs API " + url, e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Jobs API " + url + " returned " + response.statusCode());
+        }
+
+        List<Map<String, Object>> rows = new Json().toType(response.body(), Json.LIST_OF_MAPS_TYPE);
+        List<ApiPosting> postings = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            postings.add(ApiPosting.fromJson(row));
+        }
+        logger.info("Jobs API returned {} postings in {} ms: {}", postings.size(), (System.nanoTime() - start) / 1_000_000, url);
+        return Collections.unmodifiableList(postings);
+    }
+}
@@ -0,0 +1,19 @@
+package com.insider.api;
+
+/**
+ * The parts of a Lever posting page the View Role checks look at, read from the HTML by {@link LeverPostingClient}.
+ *
+ * @param requestedUrl 'View Role' href the posting was fetched from
+ * @param finalUrl     URL after redirects
+ * @param status       HTTP status, -1 if the request failed
+ * @param location     text of the {@code .posting-category.location} element, empty if the page has none
+ * @param department   text of the {@code .posting-category.department} element, empty if the page has none
+ */
+public record LeverPosting(String requestedUrl, String finalUrl, int status, String location, String department) {
+
+    static LeverPosting parse(String requestedUrl, String finalUrl, int status, String html) {
+        return new LeverPosting(requestedUrl, finalUrl, status,
+                HtmlText.ofFirstElementWithClasses(html, "posting-category", "location"),
+                HtmlText.ofFirstElementWithClasses(html, "posting-category", "department"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.insider.api;
+
+import com.insider.fixtures.SiteUrls;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fetches Lever posting pages over plain HTTP and reads the fields the UI checks look at, without a browser tab.
+ *
+ * Requests go out asynchronously over one shared HttpClient, so connections (HTTP/2 where the server offers it) are
+ * reused across postings, and at most {@code concurrency} are in flight at once. URLs go through
+ * {@link SiteUrls#resolve}, so in replay mode or with -Dsite.baseUrl the postings come from the local stand-in.
+ */
+public class LeverPostingClient {
+    private static final Logger logger = LoggerFactory.getLogger(LeverPostingClient.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(20);
+
+    private final HttpClient client;
+    private final String userAgent;
+    private final int concurrency;
+
+    /**
+     * @param userAgent sent with every request, typically the browser's own so Lever serves the same page
+     */
+    public LeverPostingClient(String userAgent, int concurrency) {
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.userAgent = userAgent;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * Fetches all postings and returns them in the order of {@code urls}. A posting that could not be fetched is
+     * returned with status -1 and the error as its location, so the caller's assertions report it like a mismatch.
+     */
+    public List<LeverPosting> fetchAll(List<String> urls) {
+        Semaphore permits = new Semaphore(concurrency);
+        List<CompletableFuture<LeverPosting>> pending = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            permits.acquireUninterruptibly();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(SiteUrls.resolve(url)))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("User-Agent", userAgent)
+                    .header("Accept", "text/html")
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .handle((response, error) -> {
+                        permits.release();
+                        if (error != null) {
+                            logger.warn("Could not fetch Lever posting {}: {}", url, error.getMessage());
+                            return new LeverPosting(url, url, -1, "fetch failed: " + error.getMessage(), "");
+                        }
+                        logger.debug("Fetched {} ({}) in {} ms", url, response.statusCode(), (System.nanoTime() - start) / 1_000_000);
+                        return LeverPosting.parse(url, response.uri().toString(), response.statusCode(), response.body());
+                    }));
+        }
+        List<LeverPosting> postings = new ArrayList<>(pending.size());
+        for (CompletableFuture<LeverPosting> posting : pending) {
+            postings.add(posting.join());
+        }
+        return postings;
+    }
+}
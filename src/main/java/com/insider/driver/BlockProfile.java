@@ -0,0 +1,60 @@
+package com.insider.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Named sets of URL patterns the browser should never fetch during a test run.
+ * Patterns use the Chrome DevTools wildcard syntax ({@code *} matches anything).
+ *
+ * Selected with -Dnetwork.blockProfile=none|third-party|lean, extra patterns can be added with
+ * -Dnetwork.block=*pattern1*,*pattern2*.
+ */
+public enum BlockProfile {
+    NONE(),
+
+    // Analytics, tag managers, chat widgets and tracking pixels. None of them is asserted on.
+    THIRD_PARTY(
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*googleadservices.com*",
+            "*facebook.net*", "*facebook.com/tr*", "*connect.facebook.net*", "*linkedin.com/px*", "*snap.licdn.com*",
+            "*hotjar.com*", "*clarity.ms*", "*hs-scripts.com*", "*hs-analytics.net*", "*hsforms.net*",
+            "*intercom.io*", "*drift.com*", "*driftt.com*", "*bat.bing.com*", "*cookiebot.com*",
+            "*youtube.com/embed*", "*player.vimeo.com*", "*fonts.googleapis.com*", "*fonts.gstatic.com*"),
+
+    // Third parties plus images, media and web fonts from any host.
+    LEAN(THIRD_PARTY,
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.avif", "*.ico",
+            "*.mp4", "*.webm", "*.mp3", "*.woff", "*.woff2", "*.ttf", "*.otf");
+
+    private final List<String> patterns;
+
+    BlockProfile(String... patterns) {
+        this.patterns = List.of(patterns);
+    }
+
+    BlockProfile(BlockProfile base, String... patterns) {
+        List<String> all = new ArrayList<>(base.patterns);
+        all.addAll(Arrays.asList(patterns));
+        this.patterns = List.copyOf(all);
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Patterns for the profile selected via system properties, including any extra -Dnetwork.block entries.
+     */
+    public static List<String> configuredPatterns() {
+        String name = System.getProperty("network.blockProfile", "none");
+        List<String> all = new ArrayList<>(valueOf(name.trim().toUpperCase().replace('-', '_')).patterns);
+        String extra = System.getProperty("network.block", "");
+        for (String pattern : extra.split(",")) {
+            if (!pattern.isBlank()) {
+                all.add(pattern.trim());
+            }
+        }
+        return all;
+    }
+}
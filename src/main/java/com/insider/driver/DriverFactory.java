@@ -0,0 +1,96 @@
+package com.insider.driver;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * Builds browser sessions for the {@link DriverPool}.
+ * I keep the browser options here (instead of BaseTest) so the pool can create a replacement session on its own
+ * when it recycles a worn out or crashed one. Browsers with a grid route (see {@link GridBackend}) are started on the
+ * grid instead of in this JVM's machine.
+ */
+public class DriverFactory {
+    private static final Logger logger = LoggerFactory.getLogger(DriverFactory.class);
+
+    /**
+     * Resolves the pool key for the given browser name, including the options the session will be started with.
+     */
+    public DriverKey keyFor(String browser) {
+        if (browser.equalsIgnoreCase("chrome")) {
+            ChromeOptions options = new ChromeOptions();
+            options.addArguments("--remote-allow-origins=*");
+            options.addArguments("--start-maximized");
+            options.addArguments("--disable-notifications");
+            options.addArguments("--disable-gpu");
+            options.addArguments("--disable-dev-shm-usage");
+            options.addArguments("--no-sandbox");
+            // Navigation returns as soon as it has started; page objects wait for their own readiness contract
+            // instead (BasePage.ensureReady), so the rest of the page keeps loading while the test works
+            options.setPageLoadStrategy(pageLoadStrategy());
+
+            // Check for headless property, default to false if not set, but can be passed via -Dheadless=true
+            String headless = System.getProperty("headless", "false");
+            if ("true".equalsIgnoreCase(headless)) {
+                options.addArguments("--headless=new");
+            }
+            if (GridBackend.routeFor(browser) != null) {
+                GridBackend.addRoutingCapabilities(options);
+            }
+            return new DriverKey(browser, options);
+        } else if (browser.equalsIgnoreCase("firefox")) {
+            FirefoxOptions options = new FirefoxOptions();
+            options.setPageLoadStrategy(pageLoadStrategy());
+            if (GridBackend.routeFor(browser) != null) {
+                GridBackend.addRoutingCapabilities(options);
+            }
+            return new DriverKey(browser, options);
+        }
+        throw new IllegalArgumentException("Browser not supported: " + browser);
+    }
+
+    // -Ddriver.pageLoadStrategy=eager|normal brings back waiting for the page in driver.get
+    private static PageLoadStrategy pageLoadStrategy() {
+        return PageLoadStrategy.valueOf(System.getProperty("driver.pageLoadStrategy", "none").toUpperCase());
+    }
+
+    /**
+     * Starts a new session for the key. This is the expensive path (driver lookup, service spawn, browser boot)
+     * that the pool tries to avoid.
+     */
+    public WebDriver create(DriverKey key) {
+        Capabilities capabilities = key.capabilities();
+        URL grid = GridBackend.routeFor(key.browser());
+        WebDriver driver;
+        if (grid != null) {
+            // Same options as a local session, the grid picks a node that can run them
+            logger.info("Starting new {} session on grid {}", key.browser(), grid);
+            driver = GridBackend.create(grid, capabilities);
+        } else if (key.browser().equals("chrome")) {
+            logger.info("Starting new {} session", key.browser());
+            // I use the default Selenium Manager (Selenium 4.6+) which automatically manages driver binaries.
+            driver = new ChromeDriver(new ChromeOptions().merge(capabilities));
+        } else if (key.browser().equals("firefox")) {
+            logger.info("Starting new {} session", key.browser());
+            driver = new FirefoxDriver(new FirefoxOptions().merge(capabilities));
+        } else {
+            throw new IllegalArgumentException("Browser not supported: " + key.browser());
+        }
+
+        // No implicit wait by default: page objects use explicit (budgeted) waits, and an implicit wait would add its
+        // full timeout to every findElements poll that finds nothing
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Long.getLong("driver.implicitWaitSeconds", 0)));
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(Long.getLong("driver.pageLoadTimeoutSeconds", 60)));
+        driver.manage().window().maximize();
+        return driver;
+    }
+}
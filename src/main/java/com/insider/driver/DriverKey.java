@@ -0,0 +1,19 @@
+package com.insider.driver;
+
+import org.openqa.selenium.Capabilities;
+
+/**
+ * Identifies a family of interchangeable browser sessions.
+ * Two leases with equal keys can safely reuse each other's driver, so the pool groups idle sessions by this key.
+ */
+public record DriverKey(String browser, Capabilities capabilities) {
+
+    public DriverKey {
+        browser = browser.toLowerCase();
+    }
+
+    @Override
+    public String toString() {
+        return browser + capabilities.asMap();
+    }
+}
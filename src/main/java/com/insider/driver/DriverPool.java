@@ -0,0 +1,241 @@
+package com.insider.driver;
+
+import com.insider.profiling.RoundTrips;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe pool of warm browser sessions.
+ * Starting a browser costs more than most of our test methods, so instead of quitting the driver after every test
+ * I hand it back to this pool, reset it to a blank state and lease it again to the next test with the same key.
+ * Sessions are recycled after a configurable number of leases or as soon as a health check fails.
+ *
+ * Settings (system properties):
+ * driver.pool.size (max open sessions, default 2), driver.pool.maxUses (default 25),
+ * driver.pool.leaseTimeoutSeconds (default 300).
+ */
+public class DriverPool {
+    private static final Logger logger = LoggerFactory.getLogger(DriverPool.class);
+
+    private static DriverPool shared;
+
+    private final DriverFactory factory;
+    private final int maxSessions;
+    private final int maxUses;
+    private final Duration leaseTimeout;
+
+    private final Map<DriverKey, Deque<PooledSession>> idle = new HashMap<>();
+    private int openSessions;
+    private boolean closed;
+
+    // The test thread that leased a session is the one that gets it back from current().
+    private final ThreadLocal<PooledSession> leased = new ThreadLocal<>();
+
+    public DriverPool(DriverFactory factory, int maxSessions, int maxUses, Duration leaseTimeout) {
+        this.factory = factory;
+        this.maxSessions = maxSessions;
+        this.maxUses = maxUses;
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    /**
+     * Process-wide pool configured from system properties. Idle sessions are quit on JVM shutdown.
+     */
+    public static synchronized DriverPool shared() {
+        if (shared == null) {
+            shared = new DriverPool(new DriverFactory(),
+                    Integer.getInteger("driver.pool.size", 2),
+                    Integer.getInteger("driver.pool.maxUses", 25),
+                    Duration.ofSeconds(Integer.getInteger("driver.pool.leaseTimeoutSeconds", 300)));
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::shutdown, "driver-pool-shutdown"));
+        }
+        return shared;
+    }
+
+    public DriverFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     * Leases a session for the given key to the calling thread, reusing an idle one when possible.
+     * Blocks while the pool is at capacity and fails after the lease timeout.
+     */
+    public WebDriver acquire(DriverKey key) {
+        if (leased.get() != null) {
+            throw new IllegalStateException("Current thread already holds a driver session");
+        }
+
+        long deadline = System.nanoTime() + leaseTimeout.toNanos();
+        while (true) {
+            PooledSession reusable = null;
+            PooledSession evicted = null;
+            boolean mayCreate = false;
+
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Driver pool is shut down");
+                }
+                Deque<PooledSession> sessions = idle.get(key);
+                if (sessions != null && !sessions.isEmpty()) {
+                    reusable = sessions.pollFirst();
+                } else if (openSessions < maxSessions) {
+                    openSessions++;
+                    mayCreate = true;
+                } else {
+                    // Pool is full. If another key has an idle session, give its slot to this key.
+                    evicted = pollAnyIdle();
+                    if (evicted != null) {
+                        mayCreate = true;
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            throw new IllegalStateException("Timed out after " + leaseTimeout.toSeconds()
+                                    + "s waiting for a free driver session for " + key);
+                        }
+                        try {
+                            wait(Math.max(1, Duration.ofNanos(remaining).toMillis()));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException("Interrupted while waiting for a driver session", e);
+                        }
+                        continue;
+                    }
+                }
+            }
+
+            if (reusable != null) {
+                if (reusable.isHealthy()) {
+                    logger.info("Reusing warm {} session (lease #{})", key.browser(), reusable.uses() + 1);
+                    return bind(reusable);
+                }
+                logger.warn("Idle {} session failed health check, discarding it", key.browser());
+                discard(reusable);
+                continue;
+            }
+
+            if (evicted != null) {
+                logger.info("Evicting idle {} session to make room for {}", evicted.key().browser(), key.browser());
+                evicted.quitQuietly();
+            }
+
+            if (mayCreate) {
+                try {
+                    // Decorated here rather than in the factory, so benchmarks built on the factory stay uncounted
+                    return bind(new PooledSession(key, RoundTrips.decorate(factory.create(key))));
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        openSessions--;
+                        notifyAll();
+                    }
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the driver leased to the calling thread, or null if it holds none.
+     */
+    public WebDriver current() {
+        PooledSession session = leased.get();
+        return session == null ? null : session.driver();
+    }
+
+    /**
+     * Hands the calling thread's session back to the pool.
+     *
+     * @param broken true if the caller saw the session misbehave; it is then quit instead of being reused.
+     */
+    public void release(boolean broken) {
+        PooledSession session = leased.get();
+        if (session == null) {
+            return;
+        }
+        leased.remove();
+
+        if (broken || session.uses() >= maxUses) {
+            logger.info("Recycling {} session after {} lease(s){}", session.key().browser(), session.uses(),
+                    broken ? " (marked broken)" : "");
+            discard(session);
+            return;
+        }
+
+        try {
+            session.reset();
+        } catch (Exception e) {
+            logger.warn("Could not reset {} session, discarding it: {}", session.key().browser(), e.getMessage());
+            discard(session);
+            return;
+        }
+
+        synchronized (this) {
+            if (closed) {
+                openSessions--;
+                session.quitQuietly();
+                return;
+            }
+            idle.computeIfAbsent(session.key(), k -> new ArrayDeque<>()).offerFirst(session);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Quits every idle session and refuses new leases. Sessions still leased are quit when they are released.
+     */
+    public void shutdown() {
+        List<PooledSession> toQuit = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (Deque<PooledSession> sessions : idle.values()) {
+                toQuit.addAll(sessions);
+            }
+            idle.clear();
+            openSessions -= toQuit.size();
+            notifyAll();
+        }
+        if (!toQuit.isEmpty()) {
+            logger.info("Quitting {} pooled driver session(s)", toQuit.size());
+        }
+        toQuit.forEach(PooledSession::quitQuietly);
+    }
+
+    private WebDriver bind(PooledSession session) {
+        session.markLeased();
+        leased.set(session);
+        return session.driver();
+    }
+
+    private void discard(PooledSession session) {
+        session.quitQuietly();
+        synchronized (this) {
+            openSessions--;
+            notifyAll();
+        }
+    }
+
+    // Caller must hold the monitor.
+    private PooledSession pollAnyIdle() {
+        Iterator<Deque<PooledSession>> it = idle.values().iterator();
+        while (it.hasNext()) {
+            Deque<PooledSession> sessions = it.next();
+            PooledSession session = sessions.pollLast();
+            if (sessions.isEmpty()) {
+                it.remove();
+            }
+            if (session != null) {
+                return session;
+            }
+        }
+        return null;
+    }
+}
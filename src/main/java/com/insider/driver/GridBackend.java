@@ -0,0 +1,175 @@
+package com.insider.driver;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import org.openqa.selenium.remote.http.jdk.JdkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remote sessions on a Selenium Grid, e.g. a standalone grid running in docker on this or a neighbouring host.
+ *
+ * Routing: -Dgrid.url sends every browser to one grid, -Dgrid.url.&lt;browser&gt; sends one browser to its own grid
+ * (and wins over grid.url). Every -Dgrid.capability.&lt;name&gt;=&lt;value&gt; is added to the requested capabilities, so
+ * the grid's matching can pick the node (platformName, a custom node stereotype, ...). Browsers without a route
+ * start locally as before.
+ *
+ * Slots: a new session request waits in the grid's queue for a free slot. When the grid gives up on it, the request
+ * is sent again until -Dgrid.slotTimeoutSeconds (600) have passed, so a run that starts more sessions than the grid
+ * has slots waits instead of failing. -Dgrid.readTimeoutSeconds (330) must stay above the grid's own
+ * --session-request-timeout (300 by default), or the client gives up on a request the grid still has queued.
+ *
+ * HTTP: all open sessions on one grid share one JDK HttpClient, so they reuse its pooled keep-alive connections
+ * instead of every session opening its own.
+ */
+final class GridBackend {
+    private static final Logger logger = LoggerFactory.getLogger(GridBackend.class);
+
+    private static final String CAPABILITY_PREFIX = "grid.capability.";
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(Long.getLong("grid.connectTimeoutSeconds", 10));
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(Long.getLong("grid.readTimeoutSeconds", 330));
+    private static final Duration SLOT_TIMEOUT = Duration.ofSeconds(Long.getLong("grid.slotTimeoutSeconds", 600));
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(10);
+
+    private static final SharedClients clients = new SharedClients();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(clients::closeAll, "grid-clients-close"));
+    }
+
+    private GridBackend() {
+    }
+
+    /**
+     * Grid the browser is routed to, or null to run it locally.
+     */
+    static URL routeFor(String browser) {
+        String url = System.getProperty("grid.url." + browser.toLowerCase(), System.getProperty("grid.url"));
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            return URI.create(url.trim()).toURL();
+        } catch (IllegalArgumentException | MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid grid URL for " + browser + ": " + url, e);
+        }
+    }
+
+    /**
+     * Adds the -Dgrid.capability.* capabilities. They become part of the pool key, so sessions asked for with
+     * different capabilities are never mixed up.
+     */
+    static void addRoutingCapabilities(MutableCapabilities options) {
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(CAPABILITY_PREFIX)) {
+                options.setCapability(name.substring(CAPABILITY_PREFIX.length()), System.getProperty(name));
+            }
+        }
+    }
+
+    /**
+     * Starts a session on the grid, waiting for a slot up to the slot timeout. The driver is augmented, so on
+     * Chromium nodes it offers CDP like a local ChromeDriver does (network monitor, screenshots, snapshots).
+     */
+    static WebDriver create(URL grid, Capabilities capabilities) {
+        ClientConfig config = ClientConfig.defaultConfig()
+                .baseUrl(grid)
+                .connectionTimeout(CONNECT_TIMEOUT)
+                .readTimeout(READ_TIMEOUT);
+        long deadline = System.nanoTime() + SLOT_TIMEOUT.toNanos();
+        Duration backoff = Duration.ofSeconds(1);
+        while (true) {
+            long start = System.nanoTime();
+            // The executor does not close its client when the session cannot be created, so each attempt does
+            HttpClient client = clients.createClient(config);
+            try {
+                RemoteWebDriver driver = new RemoteWebDriver(new HttpCommandExecutor(Map.of(), config, c -> client), capabilities);
+                logger.info("Grid {} started {} session {} in {} ms", grid, capabilities.getBrowserName(),
+                        driver.getSessionId(), (System.nanoTime() - start) / 1_000_000);
+                return new Augmenter().augment(driver);
+            } catch (RuntimeException e) {
+                client.close();
+                // Only a queue timeout is worth retrying; bad capabilities or a grid that is down will not get better
+                boolean queueTimeout = e instanceof SessionNotCreatedException
+                        && String.valueOf(e.getMessage()).contains("timed out");
+                if (!queueTimeout || System.nanoTime() + backoff.toNanos() > deadline) {
+                    throw e;
+                }
+                logger.warn("Grid {} has no free {} slot yet, asking again in {}s", grid, capabilities.getBrowserName(),
+                        backoff.toSeconds());
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    // One client per grid address, shared by the sessions on it. Each session gets a view whose close() only
+    // releases it; the client itself is closed with its last session (and at exit, for sessions that never closed).
+    private static final class SharedClients implements HttpClient.Factory {
+        private final HttpClient.Factory delegate = new JdkHttpClient.Factory();
+        private final Map<URI, HttpClient> byGrid = new HashMap<>();
+        private final Map<URI, Integer> users = new HashMap<>();
+
+        @Override
+        public synchronized HttpClient createClient(ClientConfig config) {
+            URI grid = config.baseUri();
+            HttpClient shared = byGrid.computeIfAbsent(grid, uri -> delegate.createClient(config));
+            users.merge(grid, 1, Integer::sum);
+            return new HttpClient() {
+                private boolean closed;
+
+                @Override
+                public HttpResponse execute(HttpRequest request) {
+                    return shared.execute(request);
+                }
+
+                @Override
+                public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+                    return shared.openSocket(request, listener);
+                }
+
+                @Override
+                public void close() {
+                    synchronized (SharedClients.this) {
+                        if (closed) {
+                            return;
+                        }
+                        closed = true;
+                        if (users.merge(grid, -1, Integer::sum) == 0) {
+                            users.remove(grid);
+                            byGrid.remove(grid).close();
+                        }
+                    }
+                }
+            };
+        }
+
+        synchronized void closeAll() {
+            byGrid.values().forEach(HttpClient::close);
+            byGrid.clear();
+            users.clear();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.insider.driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * Navigation for sessions that do not wait for page loads (PageLoadStrategy.NONE, see DriverFactory).
+ *
+ * There driver.get returns as soon as the navigation has started, while the previous document may still be the one
+ * scripts run in. {@link #go} marks that document first, so in-page checks can tell it apart from the new one: a
+ * new document never has {@link #LEFT_MARKER} set.
+ */
+public final class Navigation {
+
+    /**
+     * JavaScript expression that is true on a document the driver has been sent away from.
+     */
+    public static final String LEFT_MARKER = "window.__navigatedAway";
+
+    private Navigation() {
+    }
+
+    public static void go(WebDriver driver, String url) {
+        try {
+            ((JavascriptExecutor) driver).executeScript(LEFT_MARKER + " = true;");
+        } catch (WebDriverException ignored) {
+            // Nothing loaded yet or a document that refuses scripts: there is nothing to mistake for the new page
+        }
+        driver.get(url);
+    }
+
+    /**
+     * Waits until the document started by {@link #go} exists and has been parsed (DOMContentLoaded).
+     */
+    public static void awaitDocument(WebDriver driver, Duration timeout) {
+        new WebDriverWait(driver, timeout)
+                .ignoring(WebDriverException.class)
+                .until(d -> Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript(
+                        "return !" + LEFT_MARKER + " && location.href !== 'about:blank' && document.readyState !== 'loading';")));
+    }
+}
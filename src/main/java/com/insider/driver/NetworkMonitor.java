@@ -0,0 +1,247 @@
+package com.insider.driver;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.SeleniumCdpConnection;
+import org.openqa.selenium.devtools.idealized.target.model.SessionID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Network layer on top of Chrome DevTools for a single browser session.
+ *
+ * It records every request the page completes (URL, status, resource type) so page objects can wait for a specific
+ * XHR/fetch to finish instead of guessing from DOM side effects, and it applies the URL block list of the configured
+ * {@link BlockProfile} so analytics, widgets and heavy assets are never downloaded.
+ *
+ * The monitor has its own browser-level DevTools connection and auto-attaches to every page target, like
+ * {@code FixtureRecorder}. The block list and the request history therefore cover every tab of the session, including
+ * the ones the test opens later (e.g. the Lever postings behind 'View Role'), not just the tab that was current when
+ * the monitor was attached. New tabs are held until they are set up, so not even their first request slips through.
+ *
+ * Only raw CDP method names are used (no versioned devtools classes), so it keeps working across Chrome updates.
+ * Non-Chromium drivers get no monitor; {@link #of(WebDriver)} then returns null and callers fall back to DOM waits.
+ */
+public class NetworkMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkMonitor.class);
+
+    private static final int HISTORY_LIMIT = 500;
+    private static final Duration COMMAND_TIMEOUT = Duration.ofSeconds(10);
+
+    // One monitor per session. Pooled sessions keep theirs (and the DevTools connection) across leases.
+    private static final Map<WebDriver, NetworkMonitor> monitors = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Connection connection;
+    // DevTools sessions of the page targets attached so far
+    private final Set<String> sessions = new LinkedHashSet<>();
+    private List<String> blocked;
+    private final Map<String, Double> startTimes = new HashMap<>();
+    private final Map<String, Map<String, Object>> pendingResponses = new HashMap<>();
+    private final Deque<CompletedRequest> completed = new ArrayDeque<>();
+    private long sequence;
+
+    /**
+     * A request that finished loading (or failed) in one of the session's tabs.
+     *
+     * @param sequence increasing number, compare with {@link #mark()} to look only at newer requests
+     * @param status   HTTP status, 0 if the request failed or was blocked
+     */
+    public record CompletedRequest(long sequence, String url, int status, String type, long durationMillis) {
+    }
+
+    private NetworkMonitor(Connection connection, List<String> blocked) {
+        this.connection = connection;
+        this.blocked = blocked;
+    }
+
+    /**
+     * Attaches a monitor to the session (once) and applies the block list from the system properties.
+     * Returns null for drivers without DevTools support.
+     */
+    public static NetworkMonitor attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+        List<String> patterns = BlockProfile.configuredPatterns();
+        NetworkMonitor monitor = monitors.get(driver);
+        if (monitor == null) {
+            try {
+                Connection connection = SeleniumCdpConnection.create(driver).orElse(null);
+                if (connection == null) {
+                    return null;
+                }
+                monitor = new NetworkMonitor(connection, patterns);
+                monitor.listen();
+            } catch (Exception e) {
+                logger.warn("DevTools network monitoring is not available: {}", e.getMessage());
+                return null;
+            }
+            monitors.put(driver, monitor);
+        }
+        monitor.block(patterns);
+        monitor.clear();
+        return monitor;
+    }
+
+    /**
+     * Monitor previously attached to this session, or null.
+     */
+    public static NetworkMonitor of(WebDriver driver) {
+        return monitors.get(driver);
+    }
+
+    /**
+     * Replaces the URL block list of every tab of the session, and of the tabs opened later. An empty list unblocks
+     * everything.
+     */
+    public void block(List<String> patterns) {
+        List<String> tabs;
+        synchronized (this) {
+            blocked = patterns;
+            tabs = List.copyOf(sessions);
+        }
+        for (String session : tabs) {
+            connection.sendAndWait(new SessionID(session), new Command<Void>("Network.setBlockedURLs", Map.of("urls", patterns)),
+                    COMMAND_TIMEOUT);
+        }
+        if (!patterns.isEmpty()) {
+            logger.info("Blocking {} URL pattern(s) for this session", patterns.size());
+        }
+    }
+
+    /**
+     * Current position in the request history. Pass it to {@link #awaitResponse(Pattern, long, Duration)} to ignore
+     * everything that completed before an action.
+     */
+    public synchronized long mark() {
+        return sequence;
+    }
+
+    /**
+     * Forgets all recorded requests, e.g. at the start of a test on a reused session.
+     */
+    public synchronized void clear() {
+        completed.clear();
+        startTimes.clear();
+        pendingResponses.clear();
+    }
+
+    /**
+     * Waits until a request newer than {@code sinceMark} whose URL matches the pattern has finished with a 2xx status.
+     * Take the mark before the navigation or action that triggers the request, so an earlier response to the same
+     * URL is not mistaken for it.
+     *
+     * @throws TimeoutException if no such request completed in time
+     */
+    public synchronized CompletedRequest awaitResponse(Pattern urlPattern, long sinceMark, Duration timeout) {
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        while (true) {
+            for (CompletedRequest request : completed) {
+                if (request.sequence() > sinceMark && request.status() >= 200 && request.status() < 300
+                        && urlPattern.matcher(request.url()).find()) {
+                    return request;
+                }
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new TimeoutException("Timed out after " + timeout.toSeconds() + "s waiting for a response from " + urlPattern);
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for a response from " + urlPattern, e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void listen() {
+        // Events of every session on the connection reach these listeners
+        connection.addListener(new Event<Map<String, Object>>("Target.attachedToTarget", input -> input.read(Map.class)),
+                this::onAttachedToTarget);
+        connection.addListener(new Event<Map<String, Object>>("Target.detachedFromTarget", input -> input.read(Map.class)),
+                this::onDetachedFromTarget);
+        connection.addListener(new Event<Map<String, Object>>("Network.requestWillBeSent", input -> input.read(Map.class)),
+                this::onRequestWillBeSent);
+        connection.addListener(new Event<Map<String, Object>>("Network.responseReceived", input -> input.read(Map.class)),
+                this::onResponseReceived);
+        connection.addListener(new Event<Map<String, Object>>("Network.loadingFinished", input -> input.read(Map.class)),
+                params -> onFinished(params, false));
+        connection.addListener(new Event<Map<String, Object>>("Network.loadingFailed", input -> input.read(Map.class)),
+                params -> onFinished(params, true));
+
+        // Browser level (no session): attaches to the open tabs now and to every target created later
+        connection.sendAndWait(null, new Command<Void>("Target.setAutoAttach",
+                Map.of("autoAttach", true, "waitForDebuggerOnStart", true, "flatten", true)), COMMAND_TIMEOUT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onAttachedToTarget(Map<String, Object> params) {
+        String sessionId = String.valueOf(params.get("sessionId"));
+        Map<String, Object> target = (Map<String, Object>) params.get("targetInfo");
+        SessionID session = new SessionID(sessionId);
+        // Not waited for: commands issued on the event thread must not block it
+        if ("page".equals(target.get("type"))) {
+            List<String> patterns;
+            synchronized (this) {
+                sessions.add(sessionId);
+                patterns = blocked;
+            }
+            connection.send(session, new Command<Void>("Network.enable", Map.of()));
+            connection.send(session, new Command<Void>("Network.setBlockedURLs", Map.of("urls", patterns)));
+        }
+        // Sent after the setup on the same socket, so a new tab only starts loading once it is blocked and monitored
+        connection.send(session, new Command<Void>("Runtime.runIfWaitingForDebugger", Map.of()));
+    }
+
+    private synchronized void onDetachedFromTarget(Map<String, Object> params) {
+        sessions.remove(String.valueOf(params.get("sessionId")));
+    }
+
+    private synchronized void onRequestWillBeSent(Map<String, Object> params) {
+        startTimes.put(String.valueOf(params.get("requestId")), ((Number) params.get("timestamp")).doubleValue());
+    }
+
+    private synchronized void onResponseReceived(Map<String, Object> params) {
+        pendingResponses.put(String.valueOf(params.get("requestId")), params);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onFinished(Map<String, Object> params, boolean failed) {
+        String requestId = String.valueOf(params.get("requestId"));
+        Double startTime = startTimes.remove(requestId);
+        Map<String, Object> response = pendingResponses.remove(requestId);
+        if (response == null) {
+            // Failed before any response (blocked, DNS, aborted). Nothing a page object would wait for.
+            return;
+        }
+        Map<String, Object> details = (Map<String, Object>) response.get("response");
+        int status = failed ? 0 : ((Number) details.get("status")).intValue();
+        double start = startTime != null ? startTime : ((Number) response.get("timestamp")).doubleValue();
+        long duration = Math.round((((Number) params.get("timestamp")).doubleValue() - start) * 1000);
+
+        completed.addLast(new CompletedRequest(++sequence, String.valueOf(details.get("url")), status,
+                String.valueOf(response.get("type")), duration));
+        if (completed.size() > HISTORY_LIMIT) {
+            completed.removeFirst();
+        }
+        notifyAll();
+    }
+}
@@ -0,0 +1,82 @@
+package com.insider.driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Map;
+
+/**
+ * A live browser session owned by the {@link DriverPool}, together with the bookkeeping needed to reuse it.
+ */
+class PooledSession {
+    private final DriverKey key;
+    private final WebDriver driver;
+    private final String primaryWindow;
+    private int uses;
+
+    PooledSession(DriverKey key, WebDriver driver) {
+        this.key = key;
+        this.driver = driver;
+        this.primaryWindow = driver.getWindowHandle();
+    }
+
+    DriverKey key() {
+        return key;
+    }
+
+    WebDriver driver() {
+        return driver;
+    }
+
+    int uses() {
+        return uses;
+    }
+
+    void markLeased() {
+        uses++;
+    }
+
+    /**
+     * Cheap liveness probe. A crashed browser or a dead driver service fails this with a WebDriverException.
+     */
+    boolean isHealthy() {
+        try {
+            return driver.getWindowHandles().contains(primaryWindow);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Brings the session back to a blank state so the next lease cannot see anything from the previous test:
+     * extra tabs are closed, storage and cookies are cleared and the remaining tab is parked on about:blank.
+     */
+    void reset() {
+        for (String handle : driver.getWindowHandles()) {
+            if (!handle.equals(primaryWindow)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(primaryWindow);
+
+        // Storage is per origin, so it has to be cleared before we navigate away from the page that wrote it.
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        driver.manage().deleteAllCookies();
+        if (driver instanceof HasCdp) {
+            // deleteAllCookies only sees the current domain; this also drops third-party cookies (e.g. Lever).
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        }
+        driver.get("about:blank");
+    }
+
+    void quitQuietly() {
+        try {
+            driver.quit();
+        } catch (Exception ignored) {
+            // The session is being thrown away anyway, usually because it is already dead.
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.insider.driver;
+
+import com.insider.fixtures.SiteUrls;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Browser state left behind by a prerequisite flow: cookies, the page's localStorage and sessionStorage, and the
+ * URL it ended on. Restoring it into a clean session puts a test directly at that page, with the same consent
+ * banners dismissed and the same storage, without walking the flow again.
+ *
+ * @param url         in its production form (see {@link SiteUrls#toLive}), so a snapshot taken against one replay
+ *                    server can be restored against the next, whatever port it listens on
+ * @param fingerprint identifies what the flow ran against (e.g. its fixtures); a snapshot is only reused while it matches
+ * @param cookies     in the shape of the DevTools Network.Cookie type
+ */
+public record SessionSnapshot(String url, String fingerprint, long createdAtMillis, List<Map<String, Object>> cookies,
+                              Map<String, String> localStorage, Map<String, String> sessionStorage) {
+
+    private static final Duration RESTORE_TIMEOUT = Duration.ofSeconds(Long.getLong("driver.pageLoadTimeoutSeconds", 60));
+
+    private static final String READ_STORAGE_SCRIPT =
+            "function dump(s) { var out = {}; try { for (var i = 0; i < s.length; i++) { var k = s.key(i); out[k] = s.getItem(k); } } catch (e) {} return out; }" +
+            "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+
+    // Runs before any page script of the restored document, so the page starts with the captured storage
+    private static final String SEED_STORAGE_SCRIPT =
+            "(function(origin, local, session) {" +
+            "  if (location.origin !== origin) return;" +
+            "  try {" +
+            "    Object.keys(local).forEach(function(k) { localStorage.setItem(k, local[k]); });" +
+            "    Object.keys(session).forEach(function(k) { sessionStorage.setItem(k, session[k]); });" +
+            "  } catch (e) {}" +
+            "})(%s, %s, %s);";
+
+    /**
+     * Captures the state of the driver's current page. With DevTools all cookies of the browser are taken,
+     * otherwise only those visible to the current domain.
+     */
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot capture(WebDriver driver, String fingerprint) {
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        if (driver instanceof HasCdp) {
+            Map<String, Object> result = ((HasCdp) driver).executeCdpCommand("Network.getAllCookies", Map.of());
+            cookies.addAll((List<Map<String, Object>>) result.get("cookies"));
+        } else {
+            for (Cookie cookie : driver.manage().getCookies()) {
+                cookies.add(toCdpCookie(cookie));
+            }
+        }
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+        return new SessionSnapshot(SiteUrls.toLive(driver.getCurrentUrl()), fingerprint, System.currentTimeMillis(), cookies,
+                (Map<String, String>) storage.get("local"), (Map<String, String>) storage.get("session"));
+    }
+
+    /**
+     * Restores the snapshot into the driver and opens its URL. The session should be clean (e.g. freshly leased
+     * from the pool); existing cookies and storage are overwritten, not cleared.
+     */
+    public void restore(WebDriver driver) {
+        String target = SiteUrls.resolve(url);
+        if (driver instanceof HasCdp) {
+            HasCdp cdp = (HasCdp) driver;
+            // Cookies for every domain at once and storage seeded at document creation: one navigation in total
+            cdp.executeCdpCommand("Network.setCookies", Map.of("cookies", cookieParams()));
+            Map<String, Object> script = cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Map.of("source", seedScript(target)));
+            try {
+                Navigation.go(driver, target);
+                // Without page load waits the navigation may not have created the document yet
+                Navigation.awaitDocument(driver, RESTORE_TIMEOUT);
+            } finally {
+                cdp.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument",
+                        Map.of("identifier", script.get("identifier")));
+            }
+        } else {
+            // WebDriver can only set cookies and storage for the page it is on, so load it, seed it and reload
+            Navigation.go(driver, target);
+            Navigation.awaitDocument(driver, RESTORE_TIMEOUT);
+            String host = URI.create(target).getHost();
+            for (Map<String, Object> cookie : cookies) {
+                String domain = String.valueOf(cookie.get("domain"));
+                if (host != null && host.endsWith(domain.startsWith(".") ? domain.substring(1) : domain)) {
+                    driver.manage().addCookie(fromCdpCookie(cookie));
+                }
+            }
+            // Marked like Navigation.go does, so readiness checks do not pick up the page before the reload
+            ((JavascriptExecutor) driver).executeScript(seedScript(target) + Navigation.LEFT_MARKER + " = true;");
+            driver.navigate().refresh();
+        }
+    }
+
+    public boolean isExpired(long ttlMillis) {
+        return System.currentTimeMillis() - createdAtMillis > ttlMillis;
+    }
+
+    public String toJson() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("url", url);
+        map.put("fingerprint", fingerprint);
+        map.put("createdAtMillis", createdAtMillis);
+        map.put("cookies", cookies);
+        map.put("localStorage", localStorage);
+        map.put("sessionStorage", sessionStorage);
+        return new Json().toJson(map);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot fromJson(String json) {
+        Map<String, Object> map = new Json().toType(json, Json.MAP_TYPE);
+        return new SessionSnapshot(
+                String.valueOf(map.get("url")),
+                String.valueOf(map.get("fingerprint")),
+                ((Number) map.get("createdAtMillis")).longValue(),
+                (List<Map<String, Object>>) map.get("cookies"),
+                (Map<String, String>) map.get("localStorage"),
+                (Map<String, String>) map.get("sessionStorage"));
+    }
+
+    private String seedScript(String target) {
+        URI uri = URI.create(target);
+        String origin = uri.getScheme() + "://" + uri.getRawAuthority();
+        Json json = new Json();
+        return String.format(SEED_STORAGE_SCRIPT, json.toJson(origin), json.toJson(localStorage), json.toJson(sessionStorage));
+    }
+
+    // Network.getAllCookies returns more fields than Network.setCookies accepts
+    private List<Map<String, Object>> cookieParams() {
+        List<Map<String, Object>> params = new ArrayList<>();
+        for (Map<String, Object> cookie : cookies) {
+            Map<String, Object> param = new HashMap<>();
+            for (String field : List.of("name", "value", "domain", "path", "secure", "httpOnly", "sameSite")) {
+                if (cookie.get(field) != null) {
+                    param.put(field, cookie.get(field));
+                }
+            }
+            if (!Boolean.TRUE.equals(cookie.get("session")) && cookie.get("expires") instanceof Number) {
+                param.put("expires", cookie.get("expires"));
+            }
+            params.add(param);
+        }
+        return params;
+    }
+
+    private static Map<String, Object> toCdpCookie(Cookie cookie) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", cookie.getName());
+        map.put("value", cookie.getValue());
+        map.put("domain", cookie.getDomain());
+        map.put("path", cookie.getPath());
+        map.put("secure", cookie.isSecure());
+        map.put("httpOnly", cookie.isHttpOnly());
+        map.put("session", cookie.getExpiry() == null);
+        if (cookie.getExpiry() != null) {
+            map.put("expires", cookie.getExpiry().getTime() / 1000.0);
+        }
+        if (cookie.getSameSite() != null) {
+            map.put("sameSite", cookie.getSameSite());
+        }
+        return map;
+    }
+
+    private static Cookie fromCdpCookie(Map<String, Object> map) {
+        Cookie.Builder builder = new Cookie.Builder(String.valueOf(map.get("name")), String.valueOf(map.get("value")))
+                .domain(String.valueOf(map.get("domain")))
+                .path(String.valueOf(map.getOrDefault("path", "/")))
+                .isSecure(Boolean.TRUE.equals(map.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(map.get("httpOnly")));
+        if (!Boolean.TRUE.equals(map.get("session")) && map.get("expires") instanceof Number) {
+            builder.expiresOn(new Date((long) (((Number) map.get("expires")).doubleValue() * 1000)));
+        }
+        if (map.get("sameSite") != null) {
+            builder.sameSite(String.valueOf(map.get("sameSite")));
+        }
+        return builder.build();
+    }
+}
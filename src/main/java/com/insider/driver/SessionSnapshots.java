@@ -0,0 +1,110 @@
+package com.insider.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Named {@link SessionSnapshot}s, kept in memory and in -Dsession.snapshots.dir (default target/session-snapshots)
+ * so later runs can reuse them too.
+ *
+ * A snapshot is thrown away when its fingerprint no longer matches (the prerequisite flow ran against different
+ * fixtures), when it is older than -Dsession.snapshots.ttlMinutes (default 30, live cookies go stale) or when it
+ * cannot be restored. -Dsession.snapshots=false turns the whole thing off and always runs the prerequisite flow.
+ */
+public final class SessionSnapshots {
+    private static final Logger logger = LoggerFactory.getLogger(SessionSnapshots.class);
+
+    private static final boolean enabled = Boolean.parseBoolean(System.getProperty("session.snapshots", "true"));
+    private static final Path dir = Paths.get(System.getProperty("session.snapshots.dir", "target/session-snapshots"));
+    private static final long ttlMillis = Long.getLong("session.snapshots.ttlMinutes", 30) * 60_000;
+    private static final Map<String, SessionSnapshot> snapshots = new HashMap<>();
+
+    private SessionSnapshots() {
+    }
+
+    /**
+     * Puts the driver in the state left by {@code prerequisite}: restores the snapshot {@code name} if a valid one
+     * exists, otherwise runs the flow on the driver and captures a new snapshot at its end.
+     * Returns true if the state was restored from a snapshot, false if the flow ran.
+     *
+     * @param fingerprint what the flow depends on (site mode, fixtures); a stored snapshot with another fingerprint is discarded
+     */
+    public static boolean startFrom(WebDriver driver, String name, String fingerprint, Runnable prerequisite) {
+        if (!enabled) {
+            prerequisite.run();
+            return false;
+        }
+        SessionSnapshot snapshot = lookup(name, fingerprint);
+        if (snapshot != null) {
+            try {
+                snapshot.restore(driver);
+                logger.info("Restored session snapshot '{}' at {}", name, snapshot.url());
+                return true;
+            } catch (WebDriverException e) {
+                logger.warn("Could not restore session snapshot '{}', running the flow instead: {}", name, e.getMessage());
+                discard(name);
+            }
+        }
+        prerequisite.run();
+        store(name, SessionSnapshot.capture(driver, fingerprint));
+        return false;
+    }
+
+    private static synchronized SessionSnapshot lookup(String name, String fingerprint) {
+        SessionSnapshot snapshot = snapshots.get(name);
+        if (snapshot == null) {
+            Path file = file(name);
+            if (Files.exists(file)) {
+                try {
+                    snapshot = SessionSnapshot.fromJson(Files.readString(file, StandardCharsets.UTF_8));
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Ignoring unreadable session snapshot {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (snapshot == null) {
+            return null;
+        }
+        if (!snapshot.fingerprint().equals(fingerprint) || snapshot.isExpired(ttlMillis)) {
+            logger.info("Session snapshot '{}' is outdated, running the flow again", name);
+            discard(name);
+            return null;
+        }
+        snapshots.put(name, snapshot);
+        return snapshot;
+    }
+
+    private static synchronized void store(String name, SessionSnapshot snapshot) {
+        snapshots.put(name, snapshot);
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(file(name), snapshot.toJson(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not save session snapshot '{}': {}", name, e.getMessage());
+        }
+        logger.info("Captured session snapshot '{}' at {}", name, snapshot.url());
+    }
+
+    private static synchronized void discard(String name) {
+        snapshots.remove(name);
+        try {
+            Files.deleteIfExists(file(name));
+        } catch (IOException e) {
+            logger.warn("Could not delete session snapshot '{}': {}", name, e.getMessage());
+        }
+    }
+
+    private static Path file(String name) {
+        return dir.resolve(name.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+}
@@ -0,0 +1,279 @@
+package com.insider.fixtures;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.SeleniumCdpConnection;
+import org.openqa.selenium.devtools.idealized.target.model.SessionID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Captures the traffic of a browser flow through Chrome DevTools so it can be replayed offline by {@link FixtureServer}.
+ *
+ * Every GET response (documents, scripts, styles, the jobs API, ...) is stored with its status, content type and body.
+ * Absolute links to recorded hosts inside text bodies are rewritten to the {@code /<host>/<path>} layout at save time,
+ * so a replayed page keeps loading its assets and API calls from the local server.
+ *
+ * The recorder has its own browser-level DevTools connection and auto-attaches to every page target, so tabs the flow
+ * opens (e.g. the Lever postings behind 'View Role') are captured like the tab it started in. New tabs are held until
+ * their network events are enabled, so not even their first document request is missed. Being a separate connection,
+ * it does not get in the way of the session's {@code NetworkMonitor}, which attaches to the tabs the same way.
+ */
+public class FixtureRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(FixtureRecorder.class);
+
+    private static final Map<WebDriver, FixtureRecorder> recorders = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final Duration COMMAND_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Connection connection;
+    // DevTools sessions of the page targets attached so far, in attach order
+    private final Set<String> sessions = new LinkedHashSet<>();
+    // Bodies are fetched off the DevTools event thread; issuing commands from a listener can block the connection.
+    private final ExecutorService bodyFetcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "fixture-recorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, String> methods = new HashMap<>();
+    private final Map<String, Map<String, Object>> responses = new HashMap<>();
+    private final Map<String, Captured> captured = new LinkedHashMap<>();
+    private boolean recording;
+
+    private record Captured(String url, int status, String contentType, String location, byte[] body) {
+    }
+
+    private FixtureRecorder(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Recorder for the session, created on first use. Returns null for drivers without DevTools support.
+     */
+    public static FixtureRecorder attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+        synchronized (recorders) {
+            FixtureRecorder recorder = recorders.get(driver);
+            if (recorder == null) {
+                Connection connection = SeleniumCdpConnection.create(driver).orElse(null);
+                if (connection == null) {
+                    return null;
+                }
+                recorder = new FixtureRecorder(connection);
+                recorder.listen();
+                recorders.put(driver, recorder);
+            }
+            return recorder;
+        }
+    }
+
+    /**
+     * Drops anything captured so far and starts recording a new flow.
+     */
+    public synchronized void start() {
+        methods.clear();
+        responses.clear();
+        captured.clear();
+        recording = true;
+    }
+
+    /**
+     * Stops recording and writes the flow to {@code flowDir}, replacing a previous capture of the same flow.
+     *
+     * @return number of responses saved
+     */
+    public int save(Path flowDir) throws IOException {
+        synchronized (this) {
+            recording = false;
+        }
+        // Let body fetches that were already queued complete.
+        try {
+            bodyFetcher.submit(() -> { }).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("Not all response bodies could be captured: {}", e.getMessage());
+        }
+
+        List<Captured> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(captured.values());
+        }
+
+        // Longest host first, so e.g. www.useinsider.com is not rewritten as useinsider.com
+        Set<String> hosts = new TreeSet<>(Comparator.comparing(String::length).reversed().thenComparing(Comparator.naturalOrder()));
+        for (Captured c : snapshot) {
+            hosts.add(URI.create(c.url()).getHost());
+        }
+
+        List<Recording.Entry> entries = new ArrayList<>();
+        for (Captured c : snapshot) {
+            byte[] body = c.body();
+            if (body != null && isText(c.contentType())) {
+                body = rewriteLinks(new String(body, StandardCharsets.UTF_8), hosts).getBytes(StandardCharsets.UTF_8);
+            }
+            String bodyFile = body == null ? "" : Recording.writeBody(flowDir, body);
+            String location = c.location().isEmpty() ? "" : rewriteLinks(c.location(), hosts);
+            entries.add(new Recording.Entry("GET", c.url(), c.status(), c.contentType(), location, bodyFile));
+        }
+        Recording.write(flowDir, entries);
+        logger.info("Recorded {} response(s) from {} host(s) into {}", entries.size(), hosts.size(), flowDir);
+        return entries.size();
+    }
+
+    private void listen() {
+        // Events of every session on the connection reach these listeners
+        connection.addListener(new Event<Map<String, Object>>("Target.attachedToTarget", input -> input.read(Map.class)),
+                this::onAttachedToTarget);
+        connection.addListener(new Event<Map<String, Object>>("Target.detachedFromTarget", input -> input.read(Map.class)),
+                this::onDetachedFromTarget);
+        connection.addListener(new Event<Map<String, Object>>("Network.requestWillBeSent", input -> input.read(Map.class)),
+                this::onRequestWillBeSent);
+        connection.addListener(new Event<Map<String, Object>>("Network.responseReceived", input -> input.read(Map.class)),
+                this::onResponseReceived);
+        connection.addListener(new Event<Map<String, Object>>("Network.loadingFinished", input -> input.read(Map.class)),
+                this::onLoadingFinished);
+
+        // Browser level (no session): attaches to the open tabs now and to every target created later
+        connection.sendAndWait(null, new Command<Void>("Target.setAutoAttach",
+                Map.of("autoAttach", true, "waitForDebuggerOnStart", true, "flatten", true)), COMMAND_TIMEOUT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onAttachedToTarget(Map<String, Object> params) {
+        String sessionId = String.valueOf(params.get("sessionId"));
+        Map<String, Object> target = (Map<String, Object>) params.get("targetInfo");
+        SessionID session = new SessionID(sessionId);
+        // Not waited for: commands issued on the event thread must not block it
+        if ("page".equals(target.get("type"))) {
+            synchronized (this) {
+                sessions.add(sessionId);
+            }
+            connection.send(session, new Command<Void>("Network.enable", Map.of()));
+        }
+        // Sent after Network.enable on the same socket, so a new tab only starts loading once it is recorded
+        connection.send(session, new Command<Void>("Runtime.runIfWaitingForDebugger", Map.of()));
+    }
+
+    private synchronized void onDetachedFromTarget(Map<String, Object> params) {
+        sessions.remove(String.valueOf(params.get("sessionId")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onRequestWillBeSent(Map<String, Object> params) {
+        if (!recording) {
+            return;
+        }
+        String requestId = String.valueOf(params.get("requestId"));
+        methods.put(requestId, String.valueOf(((Map<String, Object>) params.get("request")).get("method")));
+
+        // A redirect hop is reported on the follow-up request; keep it so replay sends the browser the same way.
+        Map<String, Object> redirect = (Map<String, Object>) params.get("redirectResponse");
+        if (redirect != null && isRecordable(String.valueOf(redirect.get("url")))) {
+            Map<String, Object> headers = (Map<String, Object>) redirect.get("headers");
+            Object location = headers.getOrDefault("location", headers.get("Location"));
+            String url = String.valueOf(redirect.get("url"));
+            captured.put(url, new Captured(url, ((Number) redirect.get("status")).intValue(), "",
+                    location == null ? "" : String.valueOf(location), null));
+        }
+    }
+
+    private synchronized void onResponseReceived(Map<String, Object> params) {
+        if (recording) {
+            responses.put(String.valueOf(params.get("requestId")), params);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onLoadingFinished(Map<String, Object> params) {
+        String requestId = String.valueOf(params.get("requestId"));
+        Map<String, Object> response = responses.remove(requestId);
+        String method = methods.remove(requestId);
+        if (!recording || response == null || !"GET".equals(method)) {
+            return;
+        }
+        Map<String, Object> details = (Map<String, Object>) response.get("response");
+        String url = String.valueOf(details.get("url"));
+        if (!isRecordable(url)) {
+            return;
+        }
+        int status = ((Number) details.get("status")).intValue();
+        String contentType = String.valueOf(details.getOrDefault("mimeType", ""));
+
+        bodyFetcher.submit(() -> {
+            byte[] body = fetchBody(requestId, url);
+            synchronized (this) {
+                captured.put(url, new Captured(url, status, contentType, "", body));
+            }
+        });
+    }
+
+    // Events do not say which tab they came from, so the body is asked of each attached tab until one has it
+    @SuppressWarnings("unchecked")
+    private byte[] fetchBody(String requestId, String url) {
+        List<String> candidates;
+        synchronized (this) {
+            candidates = new ArrayList<>(sessions);
+        }
+        String error = "no tab attached";
+        for (String sessionId : candidates) {
+            try {
+                Map<String, Object> result = connection.sendAndWait(new SessionID(sessionId), new Command<Map<String, Object>>(
+                        "Network.getResponseBody", Map.of("requestId", requestId), input -> input.read(Map.class)), COMMAND_TIMEOUT);
+                String raw = String.valueOf(result.get("body"));
+                return Boolean.TRUE.equals(result.get("base64Encoded"))
+                        ? Base64.getDecoder().decode(raw)
+                        : raw.getBytes(StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                error = e.getMessage();
+            }
+        }
+        logger.debug("No body captured for {}: {}", url, error);
+        return null;
+    }
+
+    private static boolean isRecordable(String url) {
+        return url.startsWith("http://") || url.startsWith("https://");
+    }
+
+    private static boolean isText(String contentType) {
+        return contentType.startsWith("text/") || contentType.contains("javascript") || contentType.contains("json")
+                || contentType.contains("xml");
+    }
+
+    private static String rewriteLinks(String text, Set<String> hosts) {
+        for (String host : hosts) {
+            text = text.replace("https://" + host, "/" + host)
+                    .replace("http://" + host, "/" + host)
+                    .replace("https:\\/\\/" + host, "\\/" + host)
+                    .replace("\"//" + host, "\"/" + host)
+                    .replace("'//" + host, "'/" + host);
+        }
+        return text;
+    }
+}
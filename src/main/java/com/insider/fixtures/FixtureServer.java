@@ -0,0 +1,174 @@
+package com.insider.fixtures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Embedded HTTP server that replays flows captured by {@link FixtureRecorder}.
+ *
+ * Responses are served at {@code /<original host><original path>}, the layout {@link SiteUrls} maps page URLs to.
+ * Bodies are memory-mapped once at startup and written straight from the mapping, and connections are kept alive,
+ * so a replayed run is limited by the browser rather than by the network. Requests for paths the page resolved
+ * against the local origin (e.g. {@code /wp-content/...}) are redirected into the host of the referring page.
+ */
+public class FixtureServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(FixtureServer.class);
+
+    private record Response(int status, String contentType, String location, ByteBuffer body) {
+    }
+
+    private final Map<String, Response> responses = new HashMap<>();
+    // Same content keyed without the query string, for cache busters that differ between runs.
+    private final Map<String, Response> responsesByPath = new HashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Loads every flow under {@code fixturesRoot} (one sub-directory per flow) and starts listening on a free local port.
+     * When two flows captured the same URL, the one loaded last wins.
+     */
+    public FixtureServer(Path fixturesRoot) throws IOException {
+        try (Stream<Path> flows = Files.list(fixturesRoot)) {
+            for (Path flow : (Iterable<Path>) flows.filter(p -> Files.exists(p.resolve(Recording.INDEX_FILE))).sorted()::iterator) {
+                load(flow);
+            }
+        }
+
+        executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Fixture server replaying {} response(s) from {} at {}", responses.size(), fixturesRoot, getBaseUrl());
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void load(Path flow) throws IOException {
+        List<Recording.Entry> entries = Recording.read(flow);
+        Map<String, ByteBuffer> mapped = new HashMap<>();
+        for (Recording.Entry entry : entries) {
+            ByteBuffer body = null;
+            if (!entry.bodyFile().isEmpty()) {
+                body = mapped.computeIfAbsent(entry.bodyFile(), name -> map(flow.resolve(Recording.BODIES_DIR).resolve(name)));
+            }
+            URI uri = URI.create(entry.url());
+            Response response = new Response(entry.status(), entry.contentType(), entry.location(), body);
+            responses.put(key(uri.getHost(), uri.getRawPath(), uri.getRawQuery()), response);
+            responsesByPath.put(key(uri.getHost(), uri.getRawPath(), null), response);
+        }
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map fixture body " + file, e);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            URI uri = exchange.getRequestURI();
+            String path = uri.getRawPath();
+            int slash = path.indexOf('/', 1);
+            String host = slash > 0 ? path.substring(1, slash) : path.substring(1);
+            String hostPath = slash > 0 ? path.substring(slash) : "/";
+
+            Response response = responses.get(key(host, hostPath, uri.getRawQuery()));
+            if (response == null) {
+                response = responsesByPath.get(key(host, hostPath, null));
+            }
+            if (response == null && redirectIntoReferrer(exchange, path, uri.getRawQuery())) {
+                return;
+            }
+
+            exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+            if (response == null) {
+                logger.debug("No fixture for {}", uri);
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            if (!response.location().isEmpty()) {
+                exchange.getResponseHeaders().add("Location", response.location());
+            }
+            if (!response.contentType().isEmpty()) {
+                exchange.getResponseHeaders().add("Content-Type", response.contentType());
+            }
+            ByteBuffer body = response.body();
+            if (body == null || "HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(response.status(), -1);
+                return;
+            }
+            // A known length keeps the connection alive; duplicate() gives each request its own position.
+            exchange.sendResponseHeaders(response.status(), body.remaining());
+            try (OutputStream out = exchange.getResponseBody()) {
+                WritableByteChannel channel = Channels.newChannel(out);
+                ByteBuffer view = body.duplicate();
+                while (view.hasRemaining()) {
+                    channel.write(view);
+                }
+            }
+        }
+    }
+
+    // Root-relative URLs in a replayed page resolve against the local origin and lose their host prefix.
+    private boolean redirectIntoReferrer(HttpExchange exchange, String path, String query) throws IOException {
+        String referer = exchange.getRequestHeaders().getFirst("Referer");
+        if (referer == null) {
+            return false;
+        }
+        String refererPath = URI.create(referer).getRawPath();
+        int slash = refererPath == null ? -1 : refererPath.indexOf('/', 1);
+        if (slash < 0) {
+            return false;
+        }
+        String refererHost = refererPath.substring(1, slash);
+        if (path.startsWith("/" + refererHost + "/") || !responsesByPath.containsKey(key(refererHost, path, null))) {
+            return false;
+        }
+        exchange.getResponseHeaders().add("Location", "/" + refererHost + path + (query == null ? "" : "?" + query));
+        exchange.sendResponseHeaders(302, -1);
+        return true;
+    }
+
+    private static String key(String host, String path, String query) {
+        String normalizedPath = path == null || path.isEmpty() ? "/" : path;
+        return host + normalizedPath + (query == null ? "" : "?" + query);
+    }
+}
@@ -0,0 +1,113 @@
+package com.insider.fixtures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * On-disk format of a captured flow.
+ *
+ * A flow is a directory with an {@code index.tsv} (one line per response) and a {@code bodies/} folder holding the
+ * response bodies, named by their SHA-256 so identical assets are stored once. Plain files keep the fixtures easy
+ * to diff and let {@link FixtureServer} memory-map the bodies directly.
+ */
+public final class Recording {
+    static final String INDEX_FILE = "index.tsv";
+    static final String BODIES_DIR = "bodies";
+
+    /**
+     * One captured response.
+     *
+     * @param location redirect target for 3xx entries, empty otherwise
+     * @param bodyFile file name under {@code bodies/}, empty if the response had no body
+     */
+    public record Entry(String method, String url, int status, String contentType, String location, String bodyFile) {
+
+        String toLine() {
+            return String.join("\t", method, url, String.valueOf(status), contentType, location, bodyFile);
+        }
+
+        static Entry fromLine(String line) {
+            String[] f = line.split("\t", -1);
+            return new Entry(f[0], f[1], Integer.parseInt(f[2]), f[3], f[4], f[5]);
+        }
+    }
+
+    private Recording() {
+    }
+
+    public static List<Entry> read(Path flowDir) {
+        List<Entry> entries = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(flowDir.resolve(INDEX_FILE), StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    entries.add(Entry.fromLine(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read fixture index in " + flowDir, e);
+        }
+        return entries;
+    }
+
+    public static void write(Path flowDir, List<Entry> entries) throws IOException {
+        Files.createDirectories(flowDir);
+        List<String> lines = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            lines.add(entry.toLine());
+        }
+        Files.write(flowDir.resolve(INDEX_FILE), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stores a body under its content hash and returns the file name to put in the index.
+     */
+    public static String writeBody(Path flowDir, byte[] body) throws IOException {
+        String name = sha256(body);
+        Path file = flowDir.resolve(BODIES_DIR).resolve(name);
+        if (!Files.exists(file)) {
+            Files.createDirectories(file.getParent());
+            Files.write(file, body);
+        }
+        return name;
+    }
+
+    /**
+     * Hash over the index files of every flow under {@code root} (or of {@code root} itself if it is a flow).
+     * Bodies are named by their content hash, so any change to a captured response changes the fingerprint.
+     * Returns an empty string if there are no fixtures.
+     */
+    public static String fingerprint(Path root) {
+        if (!Files.isDirectory(root)) {
+            return "";
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Path index : files.filter(f -> f.getFileName().toString().equals(INDEX_FILE)).sorted().toList()) {
+                digest.update(root.relativize(index).toString().getBytes(StandardCharsets.UTF_8));
+                digest.update(Files.readAllBytes(index));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not fingerprint fixtures in " + root, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.insider.fixtures;
+
+import java.net.URI;
+
+/**
+ * Resolves the production URLs the page objects navigate to.
+ *
+ * By default the live site is used. When a base URL is configured (-Dsite.baseUrl=http://host:port, or set by the
+ * replay server at startup) every URL is mapped to {@code <base>/<original host><original path>}, which is the layout
+ * {@link FixtureServer} serves captured traffic in. Any other stand-in server can use the same layout.
+ */
+public final class SiteUrls {
+
+    private static volatile String baseUrl = System.getProperty("site.baseUrl");
+
+    private SiteUrls() {
+    }
+
+    public static String resolve(String liveUrl) {
+        String base = baseUrl;
+        if (base == null || base.isBlank()) {
+            return liveUrl;
+        }
+        URI uri = URI.create(liveUrl);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String query = uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery();
+        return stripTrailingSlash(base) + "/" + uri.getHost() + path + query;
+    }
+
+    /**
+     * Inverse of {@link #resolve}: the production URL a stand-in server URL stands for, e.g. to store a URL that
+     * stays valid when the next run's server listens on another port. Other URLs are returned unchanged.
+     */
+    public static String toLive(String url) {
+        String base = baseUrl;
+        if (base == null || base.isBlank()) {
+            return url;
+        }
+        String prefix = stripTrailingSlash(base) + "/";
+        if (!url.startsWith(prefix)) {
+            return url;
+        }
+        String hostAndPath = url.substring(prefix.length());
+        return "https://" + (hostAndPath.contains("/") || hostAndPath.contains("?") ? hostAndPath : hostAndPath + "/");
+    }
+
+    /**
+     * True unless the page objects are pointed at a stand-in server.
+     */
+    public static boolean isLive() {
+        String base = baseUrl;
+        return base == null || base.isBlank();
+    }
+
+    /**
+     * Points every page object at a stand-in server. Passing null goes back to the live site.
+     */
+    public static void useBaseUrl(String url) {
+        baseUrl = url;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
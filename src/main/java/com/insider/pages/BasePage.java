@@ -1,7 +1,20 @@
 package com.insider.pages;
 
+import com.insider.driver.Navigation;
+import com.insider.driver.NetworkMonitor;
+import com.insider.perf.PageMetrics;
+import com.insider.perf.PagePerformance;
+import com.insider.perf.PerformanceBudget;
+import com.insider.profiling.PageActionEvent;
+import com.insider.profiling.WaitEvent;
+import com.insider.reporting.ScreenshotPipeline;
+import com.insider.reporting.StepRecorder;
+import com.insider.reporting.StepType;
+import com.insider.waits.BrowserWait;
+import com.insider.waits.WaitBudgets;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -9,114 +22,390 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
-import org.testng.Reporter;
 import org.openqa.selenium.support.ui.Select;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 /**
  * BasePage class contains common methods and wrappers for Selenium interactions.
  * I use this to abstract low-level Selenium commands and provide more readable and robust methods for Page Objects.
+ * Steps are recorded through {@link StepRecorder}, which logs them and hands them to the report asynchronously.
  */
 public class BasePage {
     protected WebDriver driver;
     protected WebDriverWait wait;
+    protected BrowserWait browserWait;
     protected Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    protected static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(15);
+
+    // Finds the first element for a locator given as By.Remotable parameters ({using, value}), see remoteSpecs
+    private static final String LOCATE_FUNCTION =
+            "function locate(s) {" +
+            "  switch (s.using) {" +
+            "    case 'id': return document.getElementById(s.value);" +
+            "    case 'class name': return document.getElementsByClassName(s.value)[0];" +
+            "    case 'tag name': return document.getElementsByTagName(s.value)[0];" +
+            "    case 'name': return document.getElementsByName(s.value)[0];" +
+            "    case 'xpath': return document.evaluate(s.value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+            "    default: return document.querySelector(s.value);" +
+            "  }" +
+            "}";
+
+    // BrowserWait condition for a readiness contract: a document the driver has not been sent away from, with every
+    // contract element in the DOM (or, for a contract without elements, past DOMContentLoaded)
+    private static final String READY_CONDITION =
+            LOCATE_FUNCTION +
+            "if (" + Navigation.LEFT_MARKER + " || location.href === 'about:blank') return null;" +
+            "if (!params[0].length) return document.readyState !== 'loading' || null;" +
+            "for (var i = 0; i < params[0].length; i++) { if (!locate(params[0][i])) return null; }" +
+            "return true;";
+
+    // Page-level wait ceiling, like the page load timeout it replaces
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(Long.getLong("driver.pageLoadTimeoutSeconds", 60));
+
+    // Ceiling for a readiness response. Kept short: when it does not show up the elements decide, and they have waits
+    // of their own.
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(Long.getLong("driver.responseTimeoutSeconds", 10));
+
+    // Batch visibility check, one executeAsyncScript call. Every block is located (and re-located on each tick until it
+    // appears), observed with an IntersectionObserver, and the page is scrolled through once in document order,
+    // moving to the next pending block as soon as the current one has been seen or after a short grace period.
+    private static final String VISIBILITY_SCRIPT =
+            "var done = arguments[arguments.length - 1], specs = arguments[0], timeoutMs = arguments[1];" +
+            "var t0 = performance.now(), finished = false, current = -1, scrolledAt = 0, tick, timer;" +
+            "var els = [], tried = [], results = specs.map(function(s) { return {name: s.name, renderedMs: -1, visibleMs: -1}; });" +
+            "function now() { return Math.round(performance.now() - t0); }" +
+            LOCATE_FUNCTION +
+            "function shown(el) {" +
+            "  var style = getComputedStyle(el);" +
+            "  return style.visibility !== 'hidden' && style.display !== 'none' && el.getClientRects().length > 0;" +
+            "}" +
+            "var io = new IntersectionObserver(function(entries) {" +
+            "  entries.forEach(function(e) {" +
+            "    var i = els.indexOf(e.target);" +
+            "    if (i >= 0 && e.isIntersecting && results[i].visibleMs < 0 && shown(e.target)) results[i].visibleMs = now();" +
+            "  });" +
+            "  step();" +
+            "});" +
+            "function finish() {" +
+            "  if (finished) return; finished = true;" +
+            "  io.disconnect(); clearInterval(tick); clearTimeout(timer);" +
+            "  done(results);" +
+            "}" +
+            "function step() {" +
+            "  if (finished) return;" +
+            "  for (var i = 0; i < specs.length; i++) {" +
+            "    if (els[i]) continue;" +
+            "    var el = null; try { el = locate(specs[i]); } catch (e) {}" +
+            "    if (el) { els[i] = el; results[i].renderedMs = now(); io.observe(el); }" +
+            "  }" +
+            "  var pending = [];" +
+            "  for (var j = 0; j < specs.length; j++) if (results[j].visibleMs < 0) pending.push(j);" +
+            "  if (!pending.length) { finish(); return; }" +
+            "  if (current >= 0 && results[current].visibleMs < 0 && performance.now() - scrolledAt < 150) return;" +
+            "  var next = pending.filter(function(k) { return els[k] && !tried[k]; });" +
+            "  if (!next.length) {" +
+            "    pending.forEach(function(k) { tried[k] = false; });" +
+            "    return;" +
+            "  }" +
+            "  next.sort(function(a, b) { return els[a].compareDocumentPosition(els[b]) & Node.DOCUMENT_POSITION_FOLLOWING ? -1 : 1; });" +
+            "  current = next[0]; tried[current] = true; scrolledAt = performance.now();" +
+            "  els[current].scrollIntoView({block: 'center'});" +
+            "}" +
+            "timer = setTimeout(finish, timeoutMs);" +
+            "tick = setInterval(step, 50);" +
+            "step();";
+
+    // Resolved element handles of this page, so repeated interactions with the same locator skip the lookup.
+    // Cleared on navigation and window switches; a stale handle is re-resolved once, transparently.
+    private final Map<By, WebElement> elementCache = new HashMap<>();
+
+    // Names of the waits on a locator, e.g. "visibility of By.id: x", built on the first wait instead of on every one.
+    // Keyed by identity: By.hashCode would build the locator's string again.
+    private static final String VISIBLE = "visibility of ";
+    private static final String PRESENT = "presence of ";
+    private static final String ALL_PRESENT = "presence of all ";
+    private static final String CLICKABLE = "clickability of ";
+    private final Map<By, Map<String, String>> waitNames = new IdentityHashMap<>();
+
+    // Whether the readiness contract has been met since the last navigation
+    private boolean ready;
+
+    // Position in the session's request history when this page was last navigated to; only requests after it count
+    // for the readiness contract
+    private long networkMark;
+
+    /**
+     * Creating the page object marks the request history, so create it before the action that leads to the page
+     * (see {@link CareersPage#clickSeeAllQAJobs()}).
+     */
     public BasePage(WebDriver driver) {
         this.driver = driver;
         // I use Explicit Waits (WebDriverWait) because they are more reliable than Implicit Waits for dynamic elements.
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        this.wait = new WebDriverWait(driver, DEFAULT_TIMEOUT);
+        // For conditions that can be evaluated entirely in the page, BrowserWait resolves in one round trip.
+        this.browserWait = new BrowserWait(driver, this);
+        markNetwork();
+    }
+
+    /**
+     * Navigates the page's driver and forgets all cached element handles.
+     */
+    protected void navigateTo(String url) {
+        invalidateElementCache();
+        ready = false;
+        markNetwork();
+        PagePerformance.prepare(driver);
+        Navigation.go(driver, url);
+    }
+
+    private void markNetwork() {
+        NetworkMonitor network = NetworkMonitor.of(driver);
+        networkMark = network == null ? 0 : network.mark();
+    }
+
+    /**
+     * The minimum this page needs before it can be used. Subclasses name their own elements; the default is
+     * DOMContentLoaded.
+     */
+    protected ReadinessContract readiness() {
+        return ReadinessContract.DOM_CONTENT_LOADED;
+    }
+
+    /**
+     * Waits for the {@link #readiness()} contract, once per navigation. Element actions call this themselves; page
+     * methods that go to the driver directly (titles, scripts) call it first.
+     */
+    protected void ensureReady() {
+        if (ready) {
+            return;
+        }
+        ReadinessContract contract = readiness();
+        String name = getClass().getSimpleName() + " to be ready";
+        Map<String, By> elements = new LinkedHashMap<>();
+        contract.elements().forEach(locator -> elements.put(locator.toString(), locator));
+        try {
+            browserWait.until(name, READY_CONDITION, READY_TIMEOUT, Duration.ZERO, remoteSpecs(elements));
+        } catch (org.openqa.selenium.TimeoutException e) {
+            Assert.fail("Timed out waiting for " + name + ": " + contract.elements());
+        }
+
+        // With DevTools, wait on the requests themselves rather than inferring them from the DOM
+        NetworkMonitor network = NetworkMonitor.of(driver);
+        for (Pattern response : contract.responses()) {
+            if (network == null) {
+                break;
+            }
+            String waitName = "response " + response.pattern();
+            try {
+                NetworkMonitor.CompletedRequest completed = WaitBudgets.within(waitName, RESPONSE_TIMEOUT, this,
+                        budget -> network.awaitResponse(response, networkMark, budget));
+                logger.info("{} responded with {} in {} ms", completed.url(), completed.status(), completed.durationMillis());
+            } catch (org.openqa.selenium.TimeoutException e) {
+                logger.warn("No response matching '{}' seen, relying on the page elements.", response);
+            }
+        }
+        ready = true;
+    }
+
+    /**
+     * Collects the performance metrics of the current page under {@code page} and checks them against the
+     * performance budgets: a broken soft budget is logged and recorded as a failed step, a broken hard budget fails.
+     * Returns null if metrics are switched off or could not be read.
+     */
+    protected PageMetrics measurePerformance(String page) {
+        PageMetrics metrics = PagePerformance.measure(driver, page);
+        if (metrics == null) {
+            return null;
+        }
+        logger.info("Performance: {}", metrics);
+        StepRecorder.note(StepType.NOTE, "Performance: " + metrics);
+
+        List<String> hardViolations = new ArrayList<>();
+        for (PerformanceBudget.Violation violation : PerformanceBudget.check(metrics)) {
+            if (violation.hard()) {
+                hardViolations.add(violation.toString());
+            } else {
+                logger.warn("Performance budget exceeded on {}: {}", page, violation);
+                StepRecorder.record(StepType.NOTE, null, "Performance budget exceeded: " + violation, System.nanoTime(), true);
+            }
+        }
+        if (!hardViolations.isEmpty()) {
+            Assert.fail("Performance budgets exceeded on " + page + ": " + hardViolations);
+        }
+        return metrics;
+    }
+
+    protected void invalidateElementCache() {
+        elementCache.clear();
     }
 
     protected void click(By locator) {
-        logger.info("Clicking element: {}", locator);
-        Reporter.log("Clicking element: " + locator + "<br>");
+        long start = System.nanoTime();
+        PageActionEvent event = PageActionEvent.start("click", locator, this);
         try {
-            wait.until(ExpectedConditions.elementToBeClickable(locator)).click();
+            withElement(locator, this::waitVisible, element -> {
+                namedWait(CLICKABLE, locator, DEFAULT_TIMEOUT, ExpectedConditions.elementToBeClickable(element)).click();
+                return null;
+            });
+            event.finish(true);
+            StepRecorder.record(StepType.CLICK, locator, null, start, false);
+            ScreenshotPipeline.captureStep(driver, "click", locator);
         } catch (Exception e) {
-            Reporter.log("Failed to click element: " + locator + "<br>");
+            event.finish(false);
+            StepRecorder.record(StepType.CLICK, locator, null, start, true);
+            ScreenshotPipeline.markFailed(locator);
             Assert.fail("Failed to click element: " + locator + ". Error: " + e.getMessage());
         }
     }
 
     protected void click(WebElement element) {
+        long start = System.nanoTime();
+        PageActionEvent event = PageActionEvent.start("click", element, this);
         try {
-            Reporter.log("Clicking element: " + element + "<br>");
-            wait.until(ExpectedConditions.elementToBeClickable(element)).click();
+            namedWait("clickability of element", DEFAULT_TIMEOUT, ExpectedConditions.elementToBeClickable(element)).click();
+            event.finish(true);
+            StepRecorder.record(StepType.CLICK_ELEMENT, null, element, start, false);
         } catch (Exception e) {
-            Reporter.log("Failed to click element. <br>");
+            event.finish(false);
+            StepRecorder.record(StepType.CLICK_ELEMENT, null, element, start, true);
             Assert.fail("Failed to click element. Error: " + e.getMessage());
         }
     }
 
     protected void type(By locator, String text) {
-        logger.info("Typing '{}' into element: {}", text, locator);
-        Reporter.log("Typing '" + text + "' into element: " + locator + "<br>");
+        long start = System.nanoTime();
+        PageActionEvent event = PageActionEvent.start("type", locator, this);
         try {
-            WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-            element.clear();
-            element.sendKeys(text);
+            withElement(locator, this::waitVisible, element -> {
+                element.clear();
+                element.sendKeys(text);
+                return null;
+            });
+            event.finish(true);
+            StepRecorder.record(StepType.TYPE, locator, text, start, false);
+            ScreenshotPipeline.captureStep(driver, "type into", locator);
         } catch (Exception e) {
+            event.finish(false);
+            StepRecorder.record(StepType.TYPE, locator, text, start, true);
+            ScreenshotPipeline.markFailed(locator);
             Assert.fail("Failed to type into element: " + locator + ". Error: " + e.getMessage());
         }
     }
 
     protected WebElement find(By locator) {
+        PageActionEvent event = PageActionEvent.start("find", locator, this);
         try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+            WebElement element = withElement(locator, this::waitVisible, cached -> {
+                // A cached handle must still be visible, like a fresh one found by the visibility wait
+                if (!cached.isDisplayed()) throw new StaleElementReferenceException("Cached element is no longer visible");
+                return cached;
+            });
+            event.finish(true);
+            return element;
         } catch (Exception e) {
-             Assert.fail("Failed to find visible element: " + locator + ". Error: " + e.getMessage());
+            event.finish(false);
+            ScreenshotPipeline.markFailed(locator);
+            Assert.fail("Failed to find visible element: " + locator + ". Error: " + e.getMessage());
             return null;
         }
     }
     
     protected List<WebElement> findAll(By locator) {
+        PageActionEvent event = PageActionEvent.start("findAll", locator, this);
         // Just waiting for presence, not necessarily visibility of all
         try {
-            return wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
+            ensureReady();
+            List<WebElement> elements = namedWait(ALL_PRESENT, locator, DEFAULT_TIMEOUT, ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
+            event.finish(true);
+            return elements;
         } catch (Exception e) {
-              Assert.fail("Failed to find elements: " + locator + ". Error: " + e.getMessage());
-             return null;
+            event.finish(false);
+            Assert.fail("Failed to find elements: " + locator + ". Error: " + e.getMessage());
+            return null;
         }
     }
 
     protected String getText(By locator) {
+        PageActionEvent event = PageActionEvent.start("getText", locator, this);
         try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(locator)).getText();
+            String text = withElement(locator, this::waitVisible, WebElement::getText);
+            event.finish(true);
+            return text;
         } catch (Exception e) {
-             Assert.fail("Failed to get text from element: " + locator + ". Error: " + e.getMessage());
+            event.finish(false);
+            ScreenshotPipeline.markFailed(locator);
+            Assert.fail("Failed to get text from element: " + locator + ". Error: " + e.getMessage());
             return "";
         }
     }
     
     protected boolean isDisplayed(By locator) {
+        PageActionEvent event = PageActionEvent.start("isDisplayed", locator, this);
         try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(locator)).isDisplayed();
+            boolean displayed = withElement(locator, this::waitVisible, WebElement::isDisplayed);
+            if (!displayed) {
+                // Cached handle went hidden: fall back to waiting for it like an uncached lookup would
+                invalidateElementCache();
+                displayed = waitVisible(locator).isDisplayed();
+            }
+            event.finish(true);
+            return displayed;
         } catch (Exception e) {
+            event.finish(false);
             return false;
         }
     }
     
     // Helper to scroll into view
     protected void scrollToElement(By locator) {
-        WebElement element = driver.findElement(locator);
-        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
+        PageActionEvent event = PageActionEvent.start("scrollToElement", locator, this);
+        boolean success = false;
+        try {
+            withElement(locator, this::waitPresent,
+                    element -> ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element));
+            success = true;
+        } finally {
+            event.finish(success);
+        }
     }
     
     // Helper to handle Javascript click if normal click is intercepted
     protected void jsClick(By locator) {
-        WebElement element = driver.findElement(locator);
-        ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
+        PageActionEvent event = PageActionEvent.start("jsClick", locator, this);
+        boolean success = false;
+        try {
+            withElement(locator, this::waitPresent,
+                    element -> ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element));
+            success = true;
+        } finally {
+            event.finish(success);
+        }
     }
     
     protected void jsClick(WebElement element) {
-        ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
+        PageActionEvent event = PageActionEvent.start("jsClick", element, this);
+        boolean success = false;
+        try {
+            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
+            success = true;
+        } finally {
+            event.finish(success);
+        }
     }
 
     protected void switchToNewTab(String originalWindow) {
-        wait.until(d -> d.getWindowHandles().size() > 1);
+        namedWait("new tab to open", DEFAULT_TIMEOUT, d -> d.getWindowHandles().size() > 1);
+        invalidateElementCache();
         for (String windowHandle : driver.getWindowHandles()) {
             if (!originalWindow.contentEquals(windowHandle)) {
                 driver.switchTo().window(windowHandle);
@@ -127,18 +416,133 @@ public class BasePage {
     }
 
     protected void closeTabAndSwitchBack(String originalWindow) {
-        driver.close();
-        driver.switchTo().window(originalWindow);
+        PageActionEvent event = PageActionEvent.start("closeTabAndSwitchBack", null, this);
+        boolean success = false;
+        try {
+            invalidateElementCache();
+            driver.close();
+            driver.switchTo().window(originalWindow);
+            success = true;
+        } finally {
+            event.finish(success);
+        }
     }
 
     protected void selectByVisibleText(By locator, String text) {
-        Reporter.log("Selecting '" + text + "' from: " + locator + "<br>");
+        long start = System.nanoTime();
+        PageActionEvent event = PageActionEvent.start("selectByVisibleText", locator, this);
         try {
             WebElement dropdown = find(locator);
             Select select = new org.openqa.selenium.support.ui.Select(dropdown);
             select.selectByVisibleText(text);
+            event.finish(true);
+            StepRecorder.record(StepType.SELECT, locator, text, start, false);
+            ScreenshotPipeline.captureStep(driver, "select from", locator);
         } catch (Exception e) {
-             Assert.fail("Failed to select '" + text + "' from: " + locator + ". Error: " + e.getMessage());
+            event.finish(false);
+            StepRecorder.record(StepType.SELECT, locator, text, start, true);
+            ScreenshotPipeline.markFailed(locator);
+            Assert.fail("Failed to select '" + text + "' from: " + locator + ". Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks a set of named blocks in one round trip: the browser scrolls through the page once and records, per
+     * block, when it was rendered and when it was first visible. Returns as soon as every block has been seen, or
+     * after the timeout with whatever was observed by then, so one missing block does not hide the others.
+     * Results are in the iteration order of {@code blocks}.
+     */
+    protected List<SectionVisibility> checkVisibility(Map<String, By> blocks, Duration timeout) {
+        ensureReady();
+        List<Map<String, String>> specs = remoteSpecs(blocks);
+
+        // Kept below Selenium's default 30s script timeout, like BrowserWait
+        long timeoutMillis = Math.min(timeout.toMillis(), 25_000);
+        WaitEvent event = WaitEvent.start(blocks.size() + " blocks to be visible", this, timeoutMillis);
+        try {
+            List<?> rows = (List<?>) ((JavascriptExecutor) driver).executeAsyncScript(VISIBILITY_SCRIPT, specs, timeoutMillis);
+            List<SectionVisibility> report = new ArrayList<>();
+            for (Object row : rows) {
+                report.add(SectionVisibility.fromScriptResult((Map<?, ?>) row));
+            }
+            boolean allVisible = report.stream().allMatch(SectionVisibility::isVisible);
+            event.finish(allVisible ? "success" : "timeout");
+            StepRecorder.note(StepType.NOTE, "Visibility: " + report);
+            return report;
+        } catch (RuntimeException e) {
+            event.finish("failure");
+            throw e;
+        }
+    }
+
+    // Named locators as {name, using, value} maps for the in-browser locate function
+    private static List<Map<String, String>> remoteSpecs(Map<String, By> locators) {
+        List<Map<String, String>> specs = new ArrayList<>();
+        for (Map.Entry<String, By> locator : locators.entrySet()) {
+            if (!(locator.getValue() instanceof By.Remotable)) {
+                throw new IllegalArgumentException("Locator cannot be resolved in the browser: " + locator.getValue());
+            }
+            By.Remotable.Parameters parameters = ((By.Remotable) locator.getValue()).getRemoteParameters();
+            specs.add(Map.of("name", locator.getKey(), "using", parameters.using(), "value", String.valueOf(parameters.value())));
+        }
+        return specs;
+    }
+
+    /**
+     * Runs {@code action} on the cached handle for {@code locator}, resolving it with {@code resolver} on a cache miss.
+     * If the cached handle turns out to be stale, it is re-resolved and the action retried once.
+     */
+    protected <T> T withElement(By locator, Function<By, WebElement> resolver, Function<WebElement, T> action) {
+        ensureReady();
+        WebElement cached = elementCache.get(locator);
+        if (cached != null) {
+            try {
+                return action.apply(cached);
+            } catch (StaleElementReferenceException e) {
+                elementCache.remove(locator);
+            }
+        }
+        WebElement element = resolver.apply(locator);
+        elementCache.put(locator, element);
+        return action.apply(element);
+    }
+
+    private WebElement waitVisible(By locator) {
+        return namedWait(VISIBLE, locator, DEFAULT_TIMEOUT, ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+
+    private WebElement waitPresent(By locator) {
+        return namedWait(PRESENT, locator, DEFAULT_TIMEOUT, ExpectedConditions.presenceOfElementLocated(locator));
+    }
+
+    /**
+     * WebDriverWait with a name, so the wait shows up as its own event in Flight Recorder profiles.
+     * {@code timeout} is the ceiling: the wait gets the budget WaitBudgets learned for {@code name}, and never more
+     * than is left of the test's deadline. Throws TimeoutException like WebDriverWait.until.
+     */
+    protected <T> T namedWait(String name, Duration timeout, Function<? super WebDriver, T> condition) {
+        return WaitBudgets.within(name, timeout, this,
+                budget -> (budget.equals(DEFAULT_TIMEOUT) ? wait : new WebDriverWait(driver, budget)).until(condition));
+    }
+
+    /**
+     * {@link #namedWait(String, Duration, Function)} named {@code prefix} followed by the locator.
+     */
+    protected <T> T namedWait(String prefix, By locator, Duration timeout, Function<? super WebDriver, T> condition) {
+        return namedWait(waitName(prefix, locator), timeout, condition);
+    }
+
+    private String waitName(String prefix, By locator) {
+        Map<String, String> names = waitNames.get(locator);
+        if (names == null) {
+            names = new HashMap<>(4);
+            waitNames.put(locator, names);
+        }
+        String name = names.get(prefix);
+        if (name == null) {
+            name = prefix + locator;
+            names.put(prefix, name);
         }
+        return name;
     }
 }
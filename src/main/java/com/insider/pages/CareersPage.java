@@ -1,5 +1,6 @@
 package com.insider.pages;
 
+import com.insider.fixtures.SiteUrls;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
@@ -12,15 +13,29 @@ public class CareersPage extends BasePage {
     }
 
     public void open() {
-        String url = "https://useinsider.com/careers/quality-assurance/";
+        // Live URL unless a stand-in (e.g. the replay fixture server) is configured
+        String url = SiteUrls.resolve("https://useinsider.com/careers/quality-assurance/");
         logger.info("Navigating to Careers QA Page: {}", url);
-        driver.get(url);
+        navigateTo(url);
     }
 
-    public void clickSeeAllQAJobs() {
+    @Override
+    protected ReadinessContract readiness() {
+        return ReadinessContract.elements(seeAllQAJobsBtn);
+    }
+
+    /**
+     * Opens the job list. The returned page is created before the click, so it only accepts a jobs API response that
+     * the click led to.
+     */
+    public QAJobsPage clickSeeAllQAJobs() {
         logger.info("Clicking 'See all QA jobs' button");
         // Handling potential cookie banners or overlays might be needed here in a real scenario
         // click(cookieAcceptBtn); 
+        // Last chance to read this page's metrics before the click navigates away
+        measurePerformance("careers");
+        QAJobsPage qaJobsPage = new QAJobsPage(driver);
         click(seeAllQAJobsBtn);
+        return qaJobsPage;
     }
 }
@@ -1,9 +1,14 @@
 package com.insider.pages;
 
+import com.insider.fixtures.SiteUrls;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class HomePage extends BasePage {
 
     
@@ -32,42 +37,57 @@ public class HomePage extends BasePage {
     }
 
     public void open() {
-        String url = "https://useinsider.com/";
+        // Live URL unless a stand-in (e.g. the replay fixture server) is configured
+        String url = SiteUrls.resolve("https://useinsider.com/");
         logger.info("Navigating to Home Page: {}", url);
-        driver.get(url);
+        navigateTo(url);
+    }
+
+    // Only the header: the sections are waited for when they are checked
+    @Override
+    protected ReadinessContract readiness() {
+        return ReadinessContract.elements(header);
     }
 
     public void verifyHomePageOpened() {
+        ensureReady();
         Assert.assertTrue(driver.getTitle().contains("Insider"), "Home page title does not contain 'Insider'");
         logger.info("Home page opened successfully.");
     }
 
     public void verifyMainBlocksLoaded() {
-        // Checking visibility of critical elements 
-        Assert.assertTrue(isDisplayed(body), "Body is not visible");
-        Assert.assertTrue(isDisplayed(header), "Header (navigation) is not visible");
-        Assert.assertTrue(isDisplayed(main), "Main content area is not visible");
+        // Critical elements and the sections under main, checked in one pass: the browser scrolls through the page
+        // once and reports every block, so one missing section does not cost a full wait per block or hide the others
+        Map<String, By> blocks = new LinkedHashMap<>();
+        blocks.put("Body", body);
+        blocks.put("Header (navigation)", header);
+        blocks.put("Main content area", main);
+        blocks.put("Hero", heroSection);
+        blocks.put("Social Proof", socialProofSection);
+        blocks.put("Core Differentiators", coreDifferentiatorsSection);
+        blocks.put("Capabilities", capabilitiesSection);
+        blocks.put("Insider One AI", insiderOneAiSection);
+        blocks.put("Channels", channelsSection);
+        blocks.put("Case Study", caseStudySection);
+        blocks.put("Analyst", analystSection);
+        blocks.put("Integrations", integrationsSection);
+        blocks.put("Resources", resourcesSection);
+        blocks.put("Call To Action", callToActionSection);
+        blocks.put("Footer", footer);
 
-        // Verifying sections under main - Scrolling to each to ensure visibility/loading
-        verifySection(heroSection, "Hero");
-        verifySection(socialProofSection, "Social Proof");
-        verifySection(coreDifferentiatorsSection, "Core Differentiators");
-        verifySection(capabilitiesSection, "Capabilities");
-        verifySection(insiderOneAiSection, "Insider One AI");
-        verifySection(channelsSection, "Channels");
-        verifySection(caseStudySection, "Case Study");
-        verifySection(analystSection, "Analyst");
-        verifySection(integrationsSection, "Integrations");
-        verifySection(resourcesSection, "Resources");
-        verifySection(callToActionSection, "Call To Action");
+        List<SectionVisibility> report = checkVisibility(blocks, DEFAULT_TIMEOUT);
+        report.forEach(section -> logger.info("{}", section));
 
-        verifySection(footer, "Footer");
-        
-        logger.info("Main blocks and all sections are loaded successfully.");
-    }
+        List<String> notVisible = report.stream()
+                .filter(section -> !section.isVisible())
+                .map(SectionVisibility::toString)
+                .toList();
+        if (!notVisible.isEmpty()) {
+            Assert.fail("Sections not visible: " + notVisible);
+        }
 
-    private void verifySection(By locator, String sectionName) {
-        scrollToElement(locator);
-        Assert.assertTrue(isDisplayed(locator), sectionName + " section is not visible");
+        logger.info("Main blocks and all sections are loaded successfully.");
+        // Measured once the page has been scrolled through, so the wait for its load event overlaps with the checks
+        measurePerformance("home");
     }
 }
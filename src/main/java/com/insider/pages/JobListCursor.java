@@ -0,0 +1,230 @@
+package com.insider.pages;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forward-only cursor over the rows of the job list, read a batch at a time instead of all at once.
+ *
+ * Works the same on a list that is in the DOM in full, one that grows ("load more" button, infinite scroll) and one
+ * that is virtualized (only the rows near the viewport exist). Each batch is one async script call: it copies up to
+ * -Djobs.cursor.batchSize (25) rows not handed out before, in document order. When the DOM holds no new rows it
+ * clicks the load-more button if -Djobs.loadMoreSelector names one (off by default, so nothing on a page is clicked
+ * by guesswork) and waits up to -Djobs.cursor.idleMillis (2000) for new rows. Without a button it scrolls past the
+ * last row and waits -Djobs.cursor.scrollGraceMillis (250); only a list that changed in that time (a loader, row
+ * placeholders) gets the rest of the idle wait, so a list rendered in full does not pay it.
+ *
+ * Rows are told apart by their 'View Role' link (title, department and location for rows without one). The keys
+ * handed out so far live in the page until the list ends or the cursor is closed, so Java only ever holds the
+ * current batch, as plain {@link JobPosting}s rather than element references. The cursor reads from the window it
+ * was opened in, switching back to it for a batch if the caller has moved on to another tab.
+ */
+final class JobListCursor implements Iterator<JobPosting>, AutoCloseable {
+
+    private static final int BATCH_SIZE = Integer.getInteger("jobs.cursor.batchSize", 25);
+    private static final long IDLE_MILLIS = Long.getLong("jobs.cursor.idleMillis", 2000);
+    private static final long SCROLL_GRACE_MILLIS = Long.getLong("jobs.cursor.scrollGraceMillis", 250);
+    private static final String LOAD_MORE_CSS = System.getProperty("jobs.loadMoreSelector", "");
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    // Same row fields as QAJobsPage's snapshot script; index is the row's position in the cursor, not in the DOM
+    private static final String ROW_FUNCTIONS =
+            "function text(root, selector) {" +
+            "  var el = root.querySelector(selector);" +
+            "  if (!el) return '';" +
+            "  return (el.innerText || '').trim() || (el.textContent || '').trim();" +
+            "}" +
+            "function key(item) {" +
+            "  var link = item.querySelector('a.btn');" +
+            "  if (link && link.href) return link.href;" +
+            "  return text(item, '.position-title') + '|' + text(item, '.position-department') + '|' + text(item, '.position-location');" +
+            "}";
+
+    private static final String BATCH_SCRIPT =
+            "var done = arguments[arguments.length - 1], id = arguments[0], itemCss = arguments[1], batchSize = arguments[2]," +
+            "    loadMoreCss = arguments[3], idleMs = arguments[4], graceMs = Math.min(arguments[5], idleMs);" +
+            ROW_FUNCTIONS +
+            "var cursors = window.__jobCursors = window.__jobCursors || {};" +
+            "var state = cursors[id] = cursors[id] || {seen: new Set(), next: 0};" +
+            "function take() {" +
+            "  var rows = [], items = document.querySelectorAll(itemCss);" +
+            "  for (var i = 0; i < items.length && rows.length < batchSize; i++) {" +
+            "    var k = key(items[i]);" +
+            "    if (state.seen.has(k)) continue;" +
+            "    state.seen.add(k);" +
+            "    var link = items[i].querySelector('a.btn');" +
+            "    rows.push({index: state.next++, title: text(items[i], '.position-title'), department: text(items[i], '.position-department')," +
+            "               location: text(items[i], '.position-location'), href: link ? link.href : ''});" +
+            "  }" +
+            "  return rows;" +
+            "}" +
+            "var first = take();" +
+            "if (first.length) { done(first); return; }" +
+            // Nothing new in the DOM: ask the page for more and wait for it
+            "var finished = false, observer, timer;" +
+            "var items = document.querySelectorAll(itemCss), last = items[items.length - 1];" +
+            "var list = last ? last.parentNode : document.body, listChanged = false;" +
+            "function finish(rows) {" +
+            "  if (finished) return; finished = true;" +
+            "  observer.disconnect(); clearTimeout(timer);" +
+            "  if (!rows.length) delete cursors[id];" +
+            "  done(rows);" +
+            "}" +
+            "observer = new MutationObserver(function(mutations) {" +
+            "  var rows = take();" +
+            "  if (rows.length) { finish(rows); return; }" +
+            "  for (var i = 0; i < mutations.length; i++) { if (list.contains(mutations[i].target)) listChanged = true; }" +
+            "});" +
+            "observer.observe(document.body, {childList: true, subtree: true});" +
+            "var more = loadMoreCss ? document.querySelector(loadMoreCss) : null;" +
+            "if (more && more.offsetParent && !more.disabled) {" +
+            "  more.click();" +
+            "  timer = setTimeout(function() { finish(take()); }, idleMs);" +
+            "} else {" +
+            "  if (last) last.scrollIntoView({block: 'start'});" +
+            "  window.scrollBy(0, window.innerHeight);" +
+            // Only a list that reacted to the scroll can still be loading rows
+            "  timer = setTimeout(function() {" +
+            "    if (!listChanged) { finish(take()); return; }" +
+            "    timer = setTimeout(function() { finish(take()); }, idleMs - graceMs);" +
+            "  }, graceMs);" +
+            "}";
+
+    private static final String LOCATE_SCRIPT =
+            ROW_FUNCTIONS +
+            "var items = document.querySelectorAll(arguments[0]);" +
+            "for (var i = 0; i < items.length; i++) {" +
+            "  if (key(items[i]) === arguments[1]) { items[i].scrollIntoView({block: 'center'}); return items[i]; }" +
+            "}" +
+            "return null;";
+
+    private final WebDriver driver;
+    private final String itemCss;
+    private final String window;
+    private final String id = "cursor-" + ids.incrementAndGet();
+    private final Deque<JobPosting> batch = new ArrayDeque<>();
+    private boolean exhausted;
+    private boolean closed;
+
+    JobListCursor(WebDriver driver, String itemCss) {
+        this.driver = driver;
+        this.itemCss = itemCss;
+        this.window = driver.getWindowHandle();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (batch.isEmpty() && !exhausted) {
+            List<JobPosting> rows = fetch();
+            if (rows.isEmpty()) {
+                exhausted = true;
+            }
+            batch.addAll(rows);
+        }
+        return !batch.isEmpty();
+    }
+
+    @Override
+    public JobPosting next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return batch.poll();
+    }
+
+    /**
+     * The rest of the current batch, or the next batch if it has all been handed out; empty once the list has ended.
+     * For callers that work on a batch at a time, e.g. to fetch its postings together.
+     */
+    List<JobPosting> nextBatch() {
+        if (!hasNext()) {
+            return List.of();
+        }
+        List<JobPosting> rows = new ArrayList<>(batch);
+        batch.clear();
+        return rows;
+    }
+
+    /**
+     * The rows still to come, as a lazy stream; a row is only read once the stream gets to it. Closing the stream
+     * closes the cursor.
+     */
+    Stream<JobPosting> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Drops the rows handed out so far from the page, for a cursor that is given up before the list ends (e.g. on a
+     * failed assertion). Does nothing once the list has ended; the page has dropped them itself then.
+     */
+    @Override
+    public void close() {
+        if (closed || exhausted) {
+            return;
+        }
+        closed = true;
+        exhausted = true;
+        batch.clear();
+        try {
+            inWindow(() -> ((JavascriptExecutor) driver).executeScript(
+                    "if (window.__jobCursors) delete window.__jobCursors[arguments[0]];", id));
+        } catch (WebDriverException e) {
+            // The window or session is gone, and the page with it
+        }
+    }
+
+    /**
+     * The row's element, scrolled into view, or null if the row is no longer in the DOM. Meant for the row just
+     * handed out, which is still rendered even in a virtualized list.
+     */
+    WebElement element(JobPosting job) {
+        String key = job.viewRoleHref().isEmpty()
+                ? job.title() + "|" + job.department() + "|" + job.location()
+                : job.viewRoleHref();
+        return (WebElement) ((JavascriptExecutor) driver).executeScript(LOCATE_SCRIPT, itemCss, key);
+    }
+
+    // Up to a batch of rows not read yet; empty once the list has ended
+    private List<JobPosting> fetch() {
+        List<?> rows = inWindow(() -> (List<?>) ((JavascriptExecutor) driver).executeAsyncScript(BATCH_SCRIPT,
+                id, itemCss, BATCH_SIZE, LOAD_MORE_CSS, IDLE_MILLIS, SCROLL_GRACE_MILLIS));
+        List<JobPosting> jobs = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            jobs.add(JobPosting.fromScriptResult((Map<?, ?>) row));
+        }
+        return jobs;
+    }
+
+    // Runs the call in the job list window, returning to the caller's window afterwards
+    private <T> T inWindow(Supplier<T> call) {
+        String current = driver.getWindowHandle();
+        boolean elsewhere = !current.equals(window);
+        if (elsewhere) {
+            driver.switchTo().window(window);
+        }
+        try {
+            return call.get();
+        } finally {
+            if (elsewhere) {
+                driver.switchTo().window(current);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.insider.pages;
+
+import com.insider.api.ApiPosting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Differences between the job list the page rendered and the postings the jobs API says should be listed under
+ * the same filter. Rows are paired by the posting id in their 'View Role' link.
+ *
+ * @param missing    postings that match the filter in the API but are not in the list
+ * @param extra      rows in the list that are not among the API's matching postings
+ * @param mismatched rows whose title, location or department disagree with their API posting, one line each
+ */
+public record JobListDiff(List<ApiPosting> missing, List<JobPosting> extra, List<String> mismatched) {
+
+    // Lever posting ids are UUIDs, the last path segment of the hosted posting URL
+    private static final Pattern POSTING_ID = Pattern.compile("([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})");
+
+    public static JobListDiff compare(List<JobPosting> rendered, List<ApiPosting> api, String location, String department) {
+        Map<String, ApiPosting> expected = new HashMap<>();
+        for (ApiPosting posting : api) {
+            if (posting.matches(location, department)) {
+                expected.put(posting.id().toLowerCase(), posting);
+            }
+        }
+
+        List<JobPosting> extra = new ArrayList<>();
+        List<String> mismatched = new ArrayList<>();
+        for (JobPosting job : rendered) {
+            ApiPosting posting = expected.remove(postingId(job.viewRoleHref()));
+            if (posting == null) {
+                extra.add(job);
+                continue;
+            }
+            if (!job.title().equals(posting.title())) {
+                mismatched.add(describe(job) + ": title '" + job.title() + "', API '" + posting.title() + "'");
+            }
+            if (!job.location().contains(location)) {
+                mismatched.add(describe(job) + ": location '" + job.location() + "', API " + posting.allLocations());
+            }
+            if (!job.department().equals(posting.department()) && !job.department().equals(posting.team())) {
+                mismatched.add(describe(job) + ": department '" + job.department() + "', API '" + posting.department()
+                        + "' / team '" + posting.team() + "'");
+            }
+        }
+        return new JobListDiff(new ArrayList<>(expected.values()), extra, mismatched);
+    }
+
+    public boolean isEmpty() {
+        return missing.isEmpty() && extra.isEmpty() && mismatched.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(missing.size()).append(" missing, ").append(extra.size()).append(" extra, ")
+                .append(mismatched.size()).append(" mismatched");
+        for (ApiPosting posting : missing) {
+            out.append("\n  missing: ").append(posting.title()).append(" (").append(posting.hostedUrl()).append(')');
+        }
+        for (JobPosting job : extra) {
+            out.append("\n  extra: ").append(describe(job)).append(" (").append(job.viewRoleHref()).append(')');
+        }
+        for (String line : mismatched) {
+            out.append("\n  mismatch: ").append(line);
+        }
+        return out.toString();
+    }
+
+    private static String postingId(String href) {
+        Matcher matcher = POSTING_ID.matcher(href);
+        String id = null;
+        while (matcher.find()) {
+            id = matcher.group(1).toLowerCase();
+        }
+        return id;
+    }
+
+    private static String describe(JobPosting job) {
+        return "#" + (job.index() + 1) + " " + job.title();
+    }
+}
@@ -0,0 +1,22 @@
+package com.insider.pages;
+
+import java.util.Map;
+
+/**
+ * Immutable copy of one row of the job list, taken in bulk by {@link QAJobsPage#snapshotJobs()} or a batch at a time
+ * by {@link QAJobsPage#streamJobs()}. Once captured, checks on it are plain Java and cost no WebDriver round trips.
+ *
+ * @param index        position of the row in the DOM at snapshot time, or in the stream when it was streamed
+ * @param viewRoleHref absolute target of the row's 'View Role' button, empty if the row has none
+ */
+public record JobPosting(int index, String title, String department, String location, String viewRoleHref) {
+
+    static JobPosting fromScriptResult(Map<?, ?> row) {
+        return new JobPosting(
+                ((Number) row.get("index")).intValue(),
+                String.valueOf(row.get("title")),
+                String.valueOf(row.get("department")),
+                String.valueOf(row.get("location")),
+                String.valueOf(row.get("href")));
+    }
+}
@@ -1,18 +1,30 @@
 package com.insider.pages;
 
+import com.insider.api.ApiPosting;
+import com.insider.api.JobsApiClient;
+import com.insider.api.LeverPosting;
+import com.insider.api.LeverPostingClient;
+import com.insider.reporting.StepRecorder;
+import com.insider.reporting.StepType;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.Select;
+import org.openqa.selenium.WindowType;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 public class QAJobsPage extends BasePage {
 
@@ -21,8 +33,6 @@ public class QAJobsPage extends BasePage {
     private final By jobListContainer = By.id("jobs-list");
     private final By jobItem = By.className("position-list-item");
     
-    private final By positionTitle = By.className("position-title");
-    private final By positionDepartment = By.className("position-department");
     private final By positionLocation = By.className("position-location");
     
     private final By viewRoleBtn = By.cssSelector("a.btn");
@@ -32,10 +42,46 @@ public class QAJobsPage extends BasePage {
     private final By leverLocation = By.cssSelector(".posting-category.location");
     private final By leverDepartment = By.cssSelector(".posting-category.department");
 
+    // Where the careers page loads its postings from, override with -Djobs.api.pattern=<regex>
+    private static final Pattern JOBS_API = Pattern.compile(System.getProperty("jobs.api.pattern", "api\\.lever\\.co/v0/postings"));
+
+    private static final String JOB_LIST_CSS = "#jobs-list";
+    private static final String JOB_ITEM_CSS = ".position-list-item";
+
+    // Same selectors as the locators above, evaluated inside the browser so the whole list is read in one call.
+    private static final String SNAPSHOT_SCRIPT =
+            "function text(root, selector) {" +
+            "  var el = root.querySelector(selector);" +
+            "  if (!el) return '';" +
+            "  return (el.innerText || '').trim() || (el.textContent || '').trim();" +
+            "}" +
+            "var items = document.querySelectorAll('.position-list-item');" +
+            "return Array.prototype.map.call(items, function(item, i) {" +
+            "  var link = item.querySelector('a.btn');" +
+            "  return {index: i, title: text(item, '.position-title'), department: text(item, '.position-department')," +
+            "          location: text(item, '.position-location'), href: link ? link.href : ''};" +
+            "});";
+
+    // Returns null until the tab shows a freshly loaded Lever posting. The marker set by navigateWithoutWaiting lives
+    // on the previous document, so a reused tab is not mistaken for the posting it showed before.
+    private static final String LEVER_POSTING_SCRIPT =
+            "if (window.__postingChecked || document.readyState === 'loading') return null;" +
+            "var loc = document.querySelector('.posting-category.location');" +
+            "if (!loc || !loc.offsetParent) return null;" +
+            "var dep = document.querySelector('.posting-category.department');" +
+            "return {url: window.location.href, location: loc.innerText, department: dep ? dep.innerText : ''};";
+
+    private boolean performanceMeasured;
+
     public QAJobsPage(WebDriver driver) {
         super(driver);
     }
 
+    @Override
+    protected ReadinessContract readiness() {
+        return ReadinessContract.elements(locationFilter, departmentFilter, jobListContainer).withResponse(JOBS_API);
+    }
+
     /**
      * Waits for the job list API request to complete and the job list to be populated.
      * This ensures that the page has fully loaded the initial set of jobs before we attempt to filter.
@@ -43,21 +89,26 @@ public class QAJobsPage extends BasePage {
      */
     public void waitForJobListApiLoad() {
         logger.info("Waiting for initial job list API response (extended timeout)...");
-        
-        // Use a longer wait specifically for this heavy loading operation
-        WebDriverWait longWait = new WebDriverWait(driver, Duration.ofSeconds(45));
-        
+
+        // Filters, list container and (with DevTools) the jobs API call itself, see readiness()
+        ensureReady();
+
         try {
-            // Wait for the job list container to be present
-            longWait.until(ExpectedConditions.presenceOfElementLocated(jobListContainer));
-            
-            // Scroll to the container to ensure any lazy-loading triggers are fired
-            WebElement container = driver.findElement(jobListContainer);
-            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", container);
-            
-            // Wait for at least one job item to appear, indicating the API has returned data
-            longWait.until(d -> d.findElements(jobItem).size() > 0);
+            // One in-browser wait: container present (scrolled into view once, so any lazy-loading triggers are fired)
+            // and at least one job item rendered, indicating the API has returned data
+            browserWait.until("job list to be populated",
+                    "var container = document.querySelector(params[0]);" +
+                    "if (!container) return null;" +
+                    "if (!state.scrolled) { container.scrollIntoView({block: 'center'}); state.scrolled = true; }" +
+                    "var n = document.querySelectorAll(params[1]).length;" +
+                    "return n > 0 ? n : null;",
+                    Duration.ofSeconds(45), Duration.ZERO, JOB_LIST_CSS, JOB_ITEM_CSS);
             logger.info("Initial job list loaded successfully.");
+            if (!performanceMeasured) {
+                // Once the list is in, so the jobs API request is among the page's resources
+                performanceMeasured = true;
+                measurePerformance("qa-jobs");
+            }
         } catch (org.openqa.selenium.TimeoutException e) {
             // If it times out, fail 
             Assert.fail("Timed out waiting for initial job list to load. The API might be slow or down.");
@@ -66,32 +117,31 @@ public class QAJobsPage extends BasePage {
 
     public void filterJobs(String location, String department) {
         logger.info("Filtering jobs by Location: {} and Department: {}", location, department);
+        ensureReady();
         
         // Wait until the location filter is populated
-        wait.until(d -> {
-            Select s = new Select(d.findElement(locationFilter));
-            for (WebElement opt : s.getOptions()) {
-                if (opt.getText().equals(location)) return true;
-            }
-            return false;
-        });
+        browserWait.until("location filter to offer '" + location + "'",
+                "var options = document.querySelectorAll('#filter-by-location option');" +
+                "for (var i = 0; i < options.length; i++) { if (options[i].text.trim() === params[0]) return true; }" +
+                "return null;",
+                Duration.ofSeconds(15), Duration.ZERO, location);
 
-        // Capture current state for staleness check
-        List<WebElement> currentJobs = driver.findElements(jobItem);
+        // Capture current state so we can tell when the list has been re-rendered
+        String previousContent = browserWait.contentHash(JOB_ITEM_CSS);
 
         selectByVisibleText(locationFilter, location);
         selectByVisibleText(departmentFilter, department);
         
         // Wait for the job list to update
-        // Wait for the old job items to become stale (removed from DOM)
+        // Resolves in the browser as soon as the list content differs from before and has settled.
         // This confirms that the filter application triggered a re-render.
-        if (!currentJobs.isEmpty()) {
-            logger.info("Waiting for job list to update (staleness check)...");
+        if (!previousContent.startsWith("0:")) {
+            logger.info("Waiting for job list to update (content change check)...");
             try {
-                wait.until(ExpectedConditions.stalenessOf(currentJobs.get(0)));
-                logger.info("Old job list verified as stale. List is updating.");
+                browserWait.untilContentChanged(JOB_ITEM_CSS, previousContent, Duration.ofMillis(300), Duration.ofSeconds(15));
+                logger.info("Job list content changed. List has been re-rendered.");
             } catch (org.openqa.selenium.TimeoutException e) {
-                logger.warn("Old job list did not become stale. The content might be identical or the update is very fast/slow.");
+                logger.warn("Job list content did not change. The content might be identical or the update is very slow.");
             }
         }
         
@@ -103,105 +153,125 @@ public class QAJobsPage extends BasePage {
         logger.info("Verifying job list presence");
         Assert.assertTrue(isDisplayed(jobListContainer), "Job list container is not displayed");
         
-        wait.until(d -> d.findElements(jobItem).size() > 0);
-        
-        List<WebElement> jobs = findAll(jobItem);
-        Assert.assertTrue(jobs.size() > 0, "No jobs found in the list");
-        logger.info("Found {} jobs", jobs.size());
+        int jobCount = browserWait.untilStableCount(JOB_ITEM_CSS, 1, Duration.ofMillis(300), Duration.ofSeconds(15));
+        Assert.assertTrue(jobCount > 0, "No jobs found in the list");
+        logger.info("Found {} jobs", jobCount);
+    }
+
+    /**
+     * Reads every job row in a single script call. Text is taken from innerText with a textContent fallback,
+     * which matches what getElementText does element by element.
+     */
+    public List<JobPosting> snapshotJobs() {
+        ensureReady();
+        List<?> rows = (List<?>) ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT);
+        List<JobPosting> jobs = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            jobs.add(JobPosting.fromScriptResult((Map<?, ?>) row));
+        }
+        return Collections.unmodifiableList(jobs);
+    }
+
+    /**
+     * Every row of the job list as a lazy stream, read from the page a batch at a time (see {@link JobListCursor}),
+     * so lists that load more rows on scroll or only render the visible ones are covered too, and memory stays
+     * bounded by the batch size however long the list is. Prefer it over {@link #snapshotJobs()} for long lists.
+     * Close a stream that is not read to the end (try-with-resources), so the page drops the rows it handed out.
+     */
+    public Stream<JobPosting> streamJobs() {
+        return cursor().stream();
+    }
+
+    private JobListCursor cursor() {
+        ensureReady();
+        return new JobListCursor(driver, JOB_ITEM_CSS);
     }
 
     public void verifyJobDetails() {
         // Wait for job list to update and contain elements that match the filter
-        // We check ALL jobs to ensure the filter has been applied to the entire list, 
-        
+        // We check ALL rendered jobs to ensure the filter has been applied to the entire list,
+        // inside the browser so each poll is one round trip and nothing is copied out while the list settles.
+        Object rendered = null;
         try {
-            wait.until(d -> {
-                List<WebElement> jobs = d.findElements(jobItem);
-                if (jobs.isEmpty()) return false;
-                
-                for (WebElement job : jobs) {
-                    try {
-                        // Get location and title for validation
-                        WebElement locEl = job.findElement(positionLocation);
-                        String locText = locEl.getText().trim();
-                        if (locText.isEmpty()) locText = locEl.getAttribute("textContent").trim();
-                        
-                        WebElement titleEl = job.findElement(positionTitle);
-                        String titleText = titleEl.getText().trim();
-                        if (titleText.isEmpty()) titleText = titleEl.getAttribute("textContent").trim();
+            rendered = browserWait.until("job list filtered",
+                    "function text(root, selector) {" +
+                    "  var el = root.querySelector(selector);" +
+                    "  return el ? (el.innerText || '').trim() || (el.textContent || '').trim() : '';" +
+                    "}" +
+                    "var items = document.querySelectorAll(params[0]);" +
+                    "if (!items.length) return null;" +
+                    "for (var i = 0; i < items.length; i++) {" +
+                    // Validation criteria matches verifySingleJobDetail logic
+                    "  var title = text(items[i], '.position-title');" +
+                    "  if (text(items[i], '.position-location').indexOf('Istanbul, Turkiye') < 0) return null;" +
+                    "  if (title.indexOf('Quality Assurance') < 0 && title.indexOf('QA') < 0) return null;" +
+                    "}" +
+                    "return items.length;",
+                    DEFAULT_TIMEOUT, Duration.ZERO, JOB_ITEM_CSS);
+        } catch (org.openqa.selenium.TimeoutException e) {
+            Assert.fail("Timeout waiting for job list to be fully filtered by Location (Istanbul) and Department (QA). Some jobs might not match.");
+        }
 
-                        // Validation criteria matches verifySingleJobDetail logic
-                        boolean isLocationMatch = locText.contains("Istanbul, Turkiye");
-                        boolean isDepartmentMatch = titleText.contains("Quality Assurance") || titleText.contains("QA");
+        logger.info("Found {} filtered jobs. Verifying details for each...", rendered);
 
-                        // If any job in the list doesn't match
-                        if (!isLocationMatch || !isDepartmentMatch) {
-                            return false;
-                        }
-                    } catch (Exception e) {
-                        return false; 
-                    }
+        // Rows are checked as the cursor reads them, and only kept when the API comparison needs the whole list
+        boolean compareWithApi = Boolean.parseBoolean(System.getProperty("jobs.api.verify", "false"));
+        List<JobPosting> jobs = new ArrayList<>();
+        int checked = 0;
+        try (JobListCursor rows = cursor()) {
+            for (; rows.hasNext(); checked++) {
+                JobPosting job = rows.next();
+                verifySingleJobDetail(job);
+                if (compareWithApi) {
+                    jobs.add(job);
                 }
-                return true; // All visible jobs match the criteria
-            });
-        } catch (org.openqa.selenium.TimeoutException e) {
-            Assert.fail("Timeout waiting for job list to be fully filtered by Location (Istanbul) and Department (QA). Some jobs might not match.");
+            }
         }
-        
-        List<WebElement> jobs = findAll(jobItem);
-        logger.info("Found {} filtered jobs. Verifying details for each...", jobs.size());
-        
-        if (jobs.isEmpty()) {
-            Assert.fail("No jobs found after filtering!");
+        logger.info("Verified details of {} jobs", checked);
+
+        if (compareWithApi) {
+            verifyAgainstApi(jobs, "Istanbul, Turkiye", "Quality Assurance");
         }
+    }
 
-        for (int i = 0; i < jobs.size(); i++) {
-            verifySingleJobDetail(i);
+    /**
+     * Checks the rendered (already filtered) list against the jobs API: the API postings are filtered in Java with
+     * the same location and department, and every missing, extra or mismatched posting is reported in one failure.
+     * Whether the filter picks the right postings is then decided on the data; the DOM checks above only need to
+     * confirm what was rendered.
+     */
+    public void verifyAgainstApi(List<JobPosting> rendered, String location, String department) {
+        List<ApiPosting> api;
+        try {
+            api = JobsApiClient.postings();
+        } catch (IllegalStateException e) {
+            Assert.fail("Could not read the jobs API to compare the job list with: " + e.getMessage());
+            return;
+        }
+        JobListDiff diff = JobListDiff.compare(rendered, api, location, department);
+        logger.info("Job list vs jobs API ({} rendered, {} postings in API): {}", rendered.size(), api.size(), diff);
+        if (!diff.isEmpty()) {
+            Assert.fail("Job list does not match the jobs API for " + location + " / " + department + ": " + diff);
         }
     }
     
-    private void verifySingleJobDetail(int index) {
-        // Retry mechanism for StaleElementReferenceException
-        int attempts = 0;
-        while (attempts < 3) {
-            try {
-                // Re-find elements to avoid StaleElementReferenceException
-                List<WebElement> jobs = findAll(jobItem);
-                if (index >= jobs.size()) return; // Should not happen given loop bounds
-                
-                WebElement currentJob = jobs.get(index);
-                
-                // Scroll to job
-                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", currentJob);
-        
-                WebElement titleEl = currentJob.findElement(positionTitle);
-                WebElement deptEl = currentJob.findElement(positionDepartment);
-                WebElement locEl = currentJob.findElement(positionLocation);
+    private void verifySingleJobDetail(JobPosting job) {
+        String title = job.title();
+        String department = job.department();
+        String location = job.location();
+
+        logger.info("Checking Job #{}: Title='{}', Dept='{}', Loc='{}'", job.index() + 1, title, department, location);
+
+        Assert.assertTrue(title.contains("Quality Assurance") || title.contains("QA"), 
+                "Position title mismatch. Actual: " + title);
+        Assert.assertTrue(department.contains("Quality Assurance") || department.contains("QA"), 
+                "Department mismatch. Actual: " + department);
                 
-                String title = getElementText(titleEl);
-                String department = getElementText(deptEl);
-                String location = getElementText(locEl);
-        
-                logger.info("Checking Job: Title='{}', Dept='{}', Loc='{}'", title, department, location);
+        // Strict check for "Istanbul, Turkiye"
+        boolean isLocationMatch = location.contains("Istanbul, Turkiye");
         
-                Assert.assertTrue(title.contains("Quality Assurance") || title.contains("QA"), 
-                        "Position title mismatch. Actual: " + title);
-                Assert.assertTrue(department.contains("Quality Assurance") || department.contains("QA"), 
-                        "Department mismatch. Actual: " + department);
-                        
-                // Strict check for "Istanbul, Turkiye"
-                boolean isLocationMatch = location.contains("Istanbul, Turkiye");
-                
-                Assert.assertTrue(isLocationMatch, 
-                        "Location mismatch. Actual: " + location + ". Expected to contain 'Istanbul, Turkiye'");
-                
-                return; // Success, exit loop
-            } catch (StaleElementReferenceException e) {
-                logger.warn("StaleElementReferenceException in verifySingleJobDetail (attempt {}). Retrying...", attempts + 1);
-                attempts++;
-            }
-        }
-        Assert.fail("Failed to verify job detail after 3 attempts due to StaleElementReferenceException");
+        Assert.assertTrue(isLocationMatch, 
+                "Location mismatch. Actual: " + location + ". Expected to contain 'Istanbul, Turkiye'");
     }
     
     private String getElementText(WebElement element) {
@@ -223,108 +293,301 @@ public class QAJobsPage extends BasePage {
      *    c. Scroll to the job and click 'View Role' (opens new tab).
      *    d. Switch to new tab, verify URL, close tab, switch back.
      *    e. Verify we returned to the correct state before proceeding.
+     *
+     * If -DviewRole.prefetchTabs=K is set (K > 0), the pipelined mode of {@link #verifyViewRolesPipelined(int)} is used instead.
+     * With -DviewRole.mode=http the postings are fetched without a browser, see {@link #verifyViewRolesOverHttp(int)}.
+     * In every mode, postings verified by an earlier run and unchanged since are skipped, see {@link VerifiedPostings}.
      */
     public void clickAllViewRoleButtonsAndVerify() {
-        wait.until(d -> d.findElements(jobItem).size() > 0);
-        
-        // Get initial count, but will re-query inside the loop
-        int jobCount = findAll(jobItem).size();
-        
-        if (jobCount == 0) {
-            Assert.fail("No jobs available to click View Role");
+        if (System.getProperty("viewRole.mode", "browser").equalsIgnoreCase("http")) {
+            verifyViewRolesOverHttp(Integer.getInteger("viewRole.httpConcurrency", 8));
+            return;
+        }
+        int prefetchTabs = Integer.getInteger("viewRole.prefetchTabs", 0);
+        if (prefetchTabs > 0) {
+            verifyViewRolesPipelined(prefetchTabs);
+            return;
         }
-        
-        logger.info("Found {} jobs. Verifying 'View Role' links by clicking them one by one.", jobCount);
 
-        String originalWindow = driver.getWindowHandle();
-        
-        for (int i = 0; i < jobCount; i++) {
-            try {
-                // Re-find elements to avoid StaleElementReferenceException
-                List<WebElement> jobs = findAll(jobItem);
-                
-                // if the list size changed,  might go out of bounds or miss items
-                if (i >= jobs.size()) {
-                    logger.warn("Job list size changed during iteration. Stopping verification.");
-                    break;
-                }
-                
-                WebElement currentJob = jobs.get(i);
-                
-                // Scroll to job to ensure visibility
-                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", currentJob);
-                
-                // Optional: Re-verify this specific job matches filter before clicking
-                    // This ensures we don't click a wrong job if filters reset
-                    WebElement locEl = currentJob.findElement(positionLocation);
-                    String locText = getElementText(locEl);
-                    if (!locText.contains("Istanbul, Turkiye")) {
-                         logger.warn("Filter reset detected! Found job with location: {}. Re-applying filters to continue verification.", locText);
-                         // Re-apply filters
-                         filterJobs("Istanbul, Turkiye", "Quality Assurance");
-                         // Wait for list to update
-                         waitForJobListApiLoad();
-                         // Re-fetch the list
-                         jobs = findAll(jobItem);
-                         if (i >= jobs.size()) {
-                             logger.error("Job list size changed after re-filtering. Cannot continue iteration safely.");
-                             break;
-                         }
-                         currentJob = jobs.get(i);
-                    }
+        namedWait("job list present", DEFAULT_TIMEOUT, d -> d.findElements(jobItem).size() > 0);
 
-                    WebElement viewBtn = currentJob.findElement(viewRoleBtn);
-                String jobTitle = getElementText(currentJob.findElement(positionTitle));
-                
-                logger.info("Clicking 'View Role' for job #{}: {}", i + 1, jobTitle);
+        // Rows are read a batch at a time while the loop goes, so a list that loads more on scroll is covered too
+        try (JobListCursor cursor = cursor()) {
+            if (!cursor.hasNext()) {
+                Assert.fail("No jobs available to click View Role");
+            }
+            Iterator<JobPosting> jobs = viewRoleChecks(cursor, false);
+
+            logger.info("Verifying 'View Role' links by clicking them one by one.");
+
+            String originalWindow = driver.getWindowHandle();
+
+            while (jobs.hasNext()) {
+                JobPosting job = jobs.next();
+                int i = job.index();
+                boolean passed = false;
+                try {
+                    // Found by its link rather than its position, so rows loaded or re-rendered since do not shift it.
+                    // Comes back scrolled into view.
+                    WebElement currentJob = cursor.element(job);
+
+                    // Optional: Re-verify this specific job matches filter before clicking
+                        // This ensures we don't click a wrong job if filters reset
+                        String locText = currentJob == null ? "" : getElementText(currentJob.findElement(positionLocation));
+                        if (!locText.contains("Istanbul, Turkiye")) {
+                             logger.warn("Filter reset detected! Found job with location: {}. Re-applying filters to continue verification.", locText);
+                             // Re-apply filters
+                             filterJobs("Istanbul, Turkiye", "Quality Assurance");
+                             // Wait for list to update
+                             waitForJobListApiLoad();
+                             // Find the row again
+                             currentJob = cursor.element(job);
+                             if (currentJob == null) {
+                                 logger.error("Job #{} is not listed after re-filtering. Cannot continue iteration safely.", i + 1);
+                                 break;
+                             }
+                        }
+
+                        WebElement viewBtn = currentJob.findElement(viewRoleBtn);
+
+                    logger.info("Clicking 'View Role' for job #{}: {}", i + 1, job.title());
                 
-                // Click opens a new tab
-                click(viewBtn);
+                    // Click opens a new tab
+                    click(viewBtn);
                 
-                // Switch to new tab
-                switchToNewTab(originalWindow);
+                    // Switch to new tab
+                    switchToNewTab(originalWindow);
                 
-                // Verify URL
-                wait.until(d -> d.getCurrentUrl().contains("lever") || d.getCurrentUrl().contains("insider"));
-                String currentUrl = driver.getCurrentUrl();
-                Assert.assertTrue(currentUrl.contains("lever") || currentUrl.contains("jobs.lever.co"), 
-                        "Redirected URL does not contain 'lever'. Actual: " + currentUrl);
-                logger.info("Redirect verified: {}", currentUrl);
+                    // Verify URL
+                    namedWait("Lever redirect", DEFAULT_TIMEOUT, d -> d.getCurrentUrl().contains("lever") || d.getCurrentUrl().contains("insider"));
+                    String currentUrl = driver.getCurrentUrl();
+                    Assert.assertTrue(currentUrl.contains("lever") || currentUrl.contains("jobs.lever.co"), 
+                            "Redirected URL does not contain 'lever'. Actual: " + currentUrl);
+                    logger.info("Redirect verified: {}", currentUrl);
                 
-                // Verify Location and Department on Lever Page
-                try {
-                    wait.until(ExpectedConditions.visibilityOfElementLocated(leverLocation));
+                    // Verify Location and Department on Lever Page
+                    try {
+                        namedWait("Lever posting details", DEFAULT_TIMEOUT, ExpectedConditions.visibilityOfElementLocated(leverLocation));
                     
-                    String actualLocation = driver.findElement(leverLocation).getText();
-                    String actualDepartment = driver.findElement(leverDepartment).getText();
+                        String actualLocation = driver.findElement(leverLocation).getText();
+                        String actualDepartment = driver.findElement(leverDepartment).getText();
                     
-                    logger.info("Lever Page - Location: {}, Department: {}", actualLocation, actualDepartment);
+                        logger.info("Lever Page - Location: {}, Department: {}", actualLocation, actualDepartment);
                     
-                    Assert.assertTrue(actualLocation.contains("Istanbul, Turkiye"), 
-                        "Lever Page Location mismatch. Actual: " + actualLocation);
-                    Assert.assertTrue(actualDepartment.contains("Quality Assurance"), 
-                        "Lever Page Department mismatch. Actual: " + actualDepartment);
+                        assertLeverPosting(actualLocation, actualDepartment);
                         
-                } catch (Exception e) {
-                     logger.error("Failed to verify Location/Department on Lever page: {}", e.getMessage());
+                    } catch (Exception e) {
+                         logger.error("Failed to verify Location/Department on Lever page: {}", e.getMessage());
                      
-                     Assert.fail("Failed to verify Location/Department on Lever page: " + e.getMessage());
-                }
+                         Assert.fail("Failed to verify Location/Department on Lever page: " + e.getMessage());
+                    }
 
-                // Close tab and switch back
-                closeTabAndSwitchBack(originalWindow);
+                    // Close tab and switch back
+                    closeTabAndSwitchBack(originalWindow);
                 
-                // Wait for the original page to be active and list to be present again
-                wait.until(ExpectedConditions.presenceOfElementLocated(jobListContainer));
+                    // Wait for the original page to be active and list to be present again
+                    namedWait("job list after tab close", DEFAULT_TIMEOUT, ExpectedConditions.presenceOfElementLocated(jobListContainer));
+                    passed = true;
                 
-            } catch (Exception e) {
-                logger.error("Failed to verify View Role for job index {}", i, e);
-                Assert.fail("Failed to verify View Role for job index " + i + ": " + e.getMessage());
+                } catch (Exception e) {
+                    logger.error("Failed to verify View Role for job index {}", i, e);
+                    Assert.fail("Failed to verify View Role for job index " + i + ": " + e.getMessage());
+                } finally {
+                    rememberViewRoleCheck(job, passed);
+                }
             }
         }
     }
     
-    private void verifyViewRoleUrl(int index, String url, String originalWindow) {
-        //  method, logic moved to clickAllViewRoleButtonsAndVerify
+    /**
+     * Pipelined variant of {@link #clickAllViewRoleButtonsAndVerify()}.
+     *
+     * The 'View Role' targets are read from the job list a batch at a time as the pipeline drains. A window of {@code tabs} background tabs
+     * is kept loading the next Lever postings while the current one is checked. When a posting passes, its tab is
+     * pointed at the next pending posting (without waiting for the navigation) instead of being closed, so tab
+     * creation, page load and teardown are mostly off the critical path. Total time is close to the slowest few
+     * postings rather than the sum of all of them.
+     */
+    public void verifyViewRolesPipelined(int tabs) {
+        namedWait("job list present", DEFAULT_TIMEOUT, d -> d.findElements(jobItem).size() > 0);
+        // The cursor reads from the job list tab, whichever tab is current when it needs the next batch
+        JobListCursor cursor = cursor();
+        Iterator<JobPosting> jobs = viewRoleChecks(cursor, true);
+        logger.info("Verifying 'View Role' links with {} prefetch tab(s).", tabs);
+
+        String originalWindow = driver.getWindowHandle();
+        Deque<Map.Entry<String, JobPosting>> inFlight = new ArrayDeque<>();
+
+        try {
+            // Fill the window. Each tab starts its navigation and we move on without waiting for it.
+            while (inFlight.size() < tabs && jobs.hasNext()) {
+                driver.switchTo().newWindow(WindowType.TAB);
+                JobPosting job = jobs.next();
+                navigateWithoutWaiting(job.viewRoleHref());
+                inFlight.add(Map.entry(driver.getWindowHandle(), job));
+            }
+
+            while (!inFlight.isEmpty()) {
+                Map.Entry<String, JobPosting> slot = inFlight.poll();
+                JobPosting job = slot.getValue();
+                driver.switchTo().window(slot.getKey());
+
+                boolean passed = false;
+                try {
+                    Map<?, ?> posting;
+                    try {
+                        posting = namedWait("Lever posting loaded", DEFAULT_TIMEOUT, d -> (Map<?, ?>) ((JavascriptExecutor) d).executeScript(LEVER_POSTING_SCRIPT));
+                    } catch (org.openqa.selenium.TimeoutException e) {
+                        throw new AssertionError("Lever page did not load for job #" + (job.index() + 1) + " (" + job.viewRoleHref() + ")", e);
+                    }
+
+                    String currentUrl = String.valueOf(posting.get("url"));
+                    Assert.assertTrue(currentUrl.contains("lever") || currentUrl.contains("jobs.lever.co"),
+                            "Redirected URL does not contain 'lever'. Actual: " + currentUrl);
+
+                    String actualLocation = String.valueOf(posting.get("location"));
+                    String actualDepartment = String.valueOf(posting.get("department"));
+                    logger.info("Job #{} ({}) - Lever Page Location: {}, Department: {}", job.index() + 1, job.title(), actualLocation, actualDepartment);
+                    assertLeverPosting(actualLocation, actualDepartment);
+                    passed = true;
+                } finally {
+                    rememberViewRoleCheck(job, passed);
+                    if (!passed) {
+                        // The slot is no longer in inFlight, so the cleanup below would leave its tab open
+                        driver.switchTo().window(slot.getKey());
+                        driver.close();
+                    }
+                }
+
+                // Reuse this tab for the next pending posting, or close it once nothing is left to load.
+                if (jobs.hasNext()) {
+                    JobPosting upcoming = jobs.next();
+                    navigateWithoutWaiting(upcoming.viewRoleHref());
+                    inFlight.add(Map.entry(slot.getKey(), upcoming));
+                } else {
+                    driver.close();
+                }
+            }
+        } finally {
+            for (Map.Entry<String, JobPosting> slot : inFlight) {
+                driver.switchTo().window(slot.getKey());
+                driver.close();
+            }
+            driver.switchTo().window(originalWindow);
+            cursor.close();
+        }
+    }
+
+    /**
+     * Browserless variant of {@link #clickAllViewRoleButtonsAndVerify()}.
+     *
+     * The 'View Role' targets are read from the job list a batch at a time, and each batch's Lever postings are
+     * fetched over HTTP, up to {@code concurrency} at a time, with the browser's user agent. The location and department are read from the
+     * HTML and go through the same assertions as the tab-based modes. This checks the links and the posting data;
+     * that the button actually opens the link in a tab is left to the browser modes.
+     */
+    public void verifyViewRolesOverHttp(int concurrency) {
+        namedWait("job list present", DEFAULT_TIMEOUT, d -> d.findElements(jobItem).size() > 0);
+
+        String userAgent = String.valueOf(((JavascriptExecutor) driver).executeScript("return navigator.userAgent;"));
+        LeverPostingClient client = new LeverPostingClient(userAgent, concurrency);
+        logger.info("Fetching the Lever postings of the job list over HTTP ({} at a time).", concurrency);
+
+        try (JobListCursor cursor = cursor()) {
+            for (List<JobPosting> batch = cursor.nextBatch(); !batch.isEmpty(); batch = cursor.nextBatch()) {
+                assertViewRoleLinks(batch);
+                List<JobPosting> jobs = planViewRoleChecks(batch).toVerify();
+                List<String> hrefs = new ArrayList<>(jobs.size());
+                for (JobPosting job : jobs) {
+                    hrefs.add(job.viewRoleHref());
+                }
+
+                long start = System.nanoTime();
+                List<LeverPosting> postings = client.fetchAll(hrefs);
+                logger.info("Fetched {} Lever postings in {} ms", postings.size(), (System.nanoTime() - start) / 1_000_000);
+
+                for (int i = 0; i < jobs.size(); i++) {
+                    JobPosting job = jobs.get(i);
+                    LeverPosting posting = postings.get(i);
+                    boolean passed = false;
+                    try {
+                        Assert.assertEquals(posting.status(), 200,
+                                "Lever page for job #" + (job.index() + 1) + " (" + job.viewRoleHref() + ") returned " + posting.status()
+                                        + (posting.status() < 0 ? ": " + posting.location() : ""));
+                        Assert.assertTrue(posting.finalUrl().contains("lever") || posting.finalUrl().contains("jobs.lever.co"),
+                                "Redirected URL does not contain 'lever'. Actual: " + posting.finalUrl());
+                        logger.info("Job #{} ({}) - Lever Page Location: {}, Department: {}", job.index() + 1, job.title(), posting.location(), posting.department());
+                        assertLeverPosting(posting.location(), posting.department());
+                        passed = true;
+                    } finally {
+                        rememberViewRoleCheck(job, passed);
+                    }
+                }
+            }
+        }
+    }
+
+    // The cursor's rows that still need a 'View Role' check, planned against the cache a batch at a time as they are read
+    private Iterator<JobPosting> viewRoleChecks(JobListCursor cursor, boolean linksRequired) {
+        return new Iterator<>() {
+            private final Deque<JobPosting> planned = new ArrayDeque<>();
+
+            @Override
+            public boolean hasNext() {
+                while (planned.isEmpty()) {
+                    List<JobPosting> batch = cursor.nextBatch();
+                    if (batch.isEmpty()) {
+                        return false;
+                    }
+                    if (linksRequired) {
+                        assertViewRoleLinks(batch);
+                    }
+                    planned.addAll(planViewRoleChecks(batch).toVerify());
+                }
+                return true;
+            }
+
+            @Override
+            public JobPosting next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return planned.poll();
+            }
+        };
+    }
+
+    private void assertViewRoleLinks(List<JobPosting> jobs) {
+        for (JobPosting job : jobs) {
+            Assert.assertFalse(job.viewRoleHref().isEmpty(), "Job #" + (job.index() + 1) + " has no 'View Role' link: " + job.title());
+        }
+    }
+
+    // Drops the postings an earlier run verified and nothing has changed about since, and says so in the report
+    private VerifiedPostings.Plan planViewRoleChecks(List<JobPosting> jobs) {
+        VerifiedPostings.Plan plan = VerifiedPostings.plan(jobs);
+        logger.info("View Role: {}", plan);
+        StepRecorder.note(StepType.NOTE, "View Role: " + plan);
+        return plan;
+    }
+
+    private void rememberViewRoleCheck(JobPosting job, boolean passed) {
+        if (passed) {
+            VerifiedPostings.verified(job);
+        } else {
+            VerifiedPostings.forget(job);
+        }
+    }
+
+    private void navigateWithoutWaiting(String url) {
+        // Assigning location returns immediately, unlike driver.get(), and drops the marker of the previous posting.
+        ((JavascriptExecutor) driver).executeScript("window.__postingChecked = true; window.location.href = arguments[0];", url);
+    }
+
+    private void assertLeverPosting(String actualLocation, String actualDepartment) {
+        Assert.assertTrue(actualLocation.contains("Istanbul, Turkiye"), 
+            "Lever Page Location mismatch. Actual: " + actualLocation);
+        Assert.assertTrue(actualDepartment.contains("Quality Assurance"), 
+            "Lever Page Department mismatch. Actual: " + actualDepartment);
     }
 }
@@ -0,0 +1,33 @@
+package com.insider.pages;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * What a page object needs before its first action: elements that must be in the DOM and, optionally, requests that
+ * must have completed. Navigation does not wait for the page to load (see DriverFactory), so this is the only
+ * page-level wait; everything else on the page keeps loading while the test works.
+ *
+ * With no elements the contract is DOMContentLoaded, what the EAGER load strategy used to wait for.
+ *
+ * @param elements  located in the browser, so they must be {@link By.Remotable} (id, css, class, tag, name, xpath)
+ * @param responses URL patterns of requests that should have finished with a 2xx status. Only checked on browsers
+ *                  with DevTools; a response that does not show up is logged, the elements decide.
+ */
+public record ReadinessContract(List<By> elements, List<Pattern> responses) {
+
+    public static final ReadinessContract DOM_CONTENT_LOADED = new ReadinessContract(List.of(), List.of());
+
+    public static ReadinessContract elements(By... locators) {
+        return new ReadinessContract(List.of(locators), List.of());
+    }
+
+    public ReadinessContract withResponse(Pattern urlPattern) {
+        List<Pattern> all = new ArrayList<>(responses);
+        all.add(urlPattern);
+        return new ReadinessContract(elements, List.copyOf(all));
+    }
+}
@@ -0,0 +1,37 @@
+package com.insider.pages;
+
+import java.util.Map;
+
+/**
+ * Outcome for one named block of a {@link BasePage#checkVisibility} batch check.
+ *
+ * @param renderedMillis time from the start of the check until the element was in the DOM, -1 if it never appeared
+ * @param visibleMillis  time from the start of the check until the element first intersected the viewport while
+ *                       displayed, -1 if that never happened
+ */
+public record SectionVisibility(String name, long renderedMillis, long visibleMillis) {
+
+    public boolean isPresent() {
+        return renderedMillis >= 0;
+    }
+
+    public boolean isVisible() {
+        return visibleMillis >= 0;
+    }
+
+    @Override
+    public String toString() {
+        if (!isPresent()) {
+            return name + ": not found";
+        }
+        return name + ": rendered at " + renderedMillis + "ms, "
+                + (isVisible() ? "visible at " + visibleMillis + "ms" : "never visible");
+    }
+
+    static SectionVisibility fromScriptResult(Map<?, ?> row) {
+        return new SectionVisibility(
+                String.valueOf(row.get("name")),
+                ((Number) row.get("renderedMs")).longValue(),
+                ((Number) row.get("visibleMs")).longValue());
+    }
+}
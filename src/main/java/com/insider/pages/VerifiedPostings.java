@@ -0,0 +1,217 @@
+package com.insider.pages;
+
+import com.insider.fixtures.SiteUrls;
+import com.insider.state.StateFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lever postings whose 'View Role' check passed in an earlier run, so a run only opens the postings that are new or
+ * changed since then.
+ *
+ * An entry is keyed by the posting's 'View Role' URL (which holds the Lever posting id) and remembers a hash of the
+ * job list row (title, department, location, link) it was verified with. A row whose hash no longer matches is
+ * verified again, and so is an entry older than -DviewRole.cache.ttlHours (24). On top of that
+ * -DviewRole.cache.sample (0.1, at least one posting) of the cached postings are picked at random and verified
+ * anyway, so a posting that changed on Lever's side only still gets caught.
+ *
+ * Entries live in -DviewRole.cache.file (default verified-postings.tsv): URL, row hash, verified at, last used.
+ * At most -DviewRole.cache.maxEntries (500) are kept, the least recently used go first. The file is merged under a
+ * file lock at exit, so parallel runs on one machine share it. Only live runs use the cache; replay and stand-in
+ * runs always verify everything. -DviewRole.cache=false turns it off.
+ */
+final class VerifiedPostings {
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedPostings.class);
+
+    private static final boolean enabled = Boolean.parseBoolean(System.getProperty("viewRole.cache", "true"));
+    private static final Path file = Paths.get(System.getProperty("viewRole.cache.file", "verified-postings.tsv"));
+    private static final long ttlMillis = Long.getLong("viewRole.cache.ttlHours", 24) * 3_600_000;
+    private static final double sampleRate = Double.parseDouble(System.getProperty("viewRole.cache.sample", "0.1"));
+    private static final int maxEntries = Integer.getInteger("viewRole.cache.maxEntries", 500);
+
+    // Access order, so iteration starts at the least recently used entry
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private static final Set<String> removed = new HashSet<>();
+    private static boolean loaded;
+    private static boolean dirty;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(VerifiedPostings::save, "verified-postings-save"));
+    }
+
+    private record Entry(String rowHash, long verifiedAt, long lastUsed) {
+    }
+
+    /**
+     * Which postings of a job list to verify in full.
+     *
+     * @param toVerify new, changed or expired postings plus the sampled ones, in list order
+     * @param cached   postings taken from the cache without opening them
+     * @param sampled  cached postings verified anyway
+     */
+    record Plan(List<JobPosting> toVerify, int cached, int sampled) {
+        @Override
+        public String toString() {
+            return toVerify.size() + " verified in full (" + sampled + " of them sampled from the cache), "
+                    + cached + " from the cache";
+        }
+    }
+
+    private VerifiedPostings() {
+    }
+
+    static synchronized Plan plan(List<JobPosting> jobs) {
+        if (!active()) {
+            return new Plan(jobs, 0, 0);
+        }
+        load();
+        long now = System.currentTimeMillis();
+        List<JobPosting> hits = new ArrayList<>();
+        for (JobPosting job : jobs) {
+            Entry entry = entries.get(job.viewRoleHref());
+            if (entry != null && entry.rowHash().equals(rowHash(job)) && now - entry.verifiedAt() < ttlMillis) {
+                entries.put(job.viewRoleHref(), new Entry(entry.rowHash(), entry.verifiedAt(), now));
+                dirty = true;
+                hits.add(job);
+            }
+        }
+        Collections.shuffle(hits, ThreadLocalRandom.current());
+        int sampled = hits.isEmpty() ? 0 : Math.min(hits.size(), Math.max(1, (int) Math.ceil(hits.size() * sampleRate)));
+        Set<JobPosting> skipped = new HashSet<>(hits.subList(sampled, hits.size()));
+
+        List<JobPosting> toVerify = new ArrayList<>();
+        for (JobPosting job : jobs) {
+            if (!skipped.contains(job)) {
+                toVerify.add(job);
+            }
+        }
+        return new Plan(toVerify, skipped.size(), sampled);
+    }
+
+    /**
+     * Remembers a posting whose check passed.
+     */
+    static synchronized void verified(JobPosting job) {
+        if (!active() || job.viewRoleHref().isEmpty()) {
+            return;
+        }
+        load();
+        long now = System.currentTimeMillis();
+        entries.put(job.viewRoleHref(), new Entry(rowHash(job), now, now));
+        removed.remove(job.viewRoleHref());
+        dirty = true;
+        while (entries.size() > maxEntries) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Forgets a posting, e.g. one whose check failed, so no run takes it from the cache.
+     */
+    static synchronized void forget(JobPosting job) {
+        if (!active()) {
+            return;
+        }
+        load();
+        entries.remove(job.viewRoleHref());
+        removed.add(job.viewRoleHref());
+        dirty = true;
+    }
+
+    private static boolean active() {
+        return enabled && SiteUrls.isLive();
+    }
+
+    private static String rowHash(JobPosting job) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String row = job.title() + '\n' + job.department() + '\n' + job.location() + '\n' + job.viewRoleHref();
+            return HexFormat.of().formatHex(digest.digest(row.getBytes(StandardCharsets.UTF_8)), 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Caller must hold the class lock
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            parse(Files.readAllLines(file, StandardCharsets.UTF_8), entries);
+        } catch (IOException e) {
+            logger.warn("Could not read verified postings from {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void parse(List<String> lines, Map<String, Entry> target) {
+        List<Map.Entry<String, Entry>> parsed = new ArrayList<>();
+        for (String line : lines) {
+            String[] parts = line.split("\t");
+            if (parts.length < 4) {
+                continue;
+            }
+            try {
+                parsed.add(Map.entry(parts[0], new Entry(parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]))));
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed verified posting line: {}", line);
+            }
+        }
+        // Oldest use first, so the access order matches the file's
+        parsed.sort(Map.Entry.comparingByValue((a, b) -> Long.compare(a.lastUsed(), b.lastUsed())));
+        parsed.forEach(e -> target.put(e.getKey(), e.getValue()));
+    }
+
+    static synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            StateFile.update(file, lines -> {
+                Map<String, Entry> merged = new LinkedHashMap<>(16, 0.75f, true);
+                parse(lines, merged);
+                removed.forEach(merged::remove);
+                entries.forEach((url, entry) -> {
+                    Entry other = merged.get(url);
+                    // Whichever run verified it last knows best
+                    if (other == null || other.verifiedAt() <= entry.verifiedAt()) {
+                        merged.put(url, new Entry(entry.rowHash(), entry.verifiedAt(),
+                                Math.max(entry.lastUsed(), other == null ? 0 : other.lastUsed())));
+                    }
+                });
+
+                List<Map.Entry<String, Entry>> kept = new ArrayList<>(merged.entrySet());
+                kept.sort(Map.Entry.comparingByValue((a, b) -> Long.compare(b.lastUsed(), a.lastUsed())));
+                StringBuilder out = new StringBuilder();
+                kept.stream().limit(maxEntries).forEach(e -> out.append(e.getKey()).append('\t')
+                        .append(e.getValue().rowHash()).append('\t').append(e.getValue().verifiedAt()).append('\t')
+                        .append(e.getValue().lastUsed()).append('\n'));
+                return out.toString();
+            });
+            dirty = false;
+        } catch (IOException e) {
+            logger.warn("Could not save verified postings to {}: {}", file, e.getMessage());
+        }
+    }
+}
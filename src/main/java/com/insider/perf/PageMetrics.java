@@ -0,0 +1,74 @@
+package com.insider.perf;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Performance numbers of one page load, as read from the browser by {@link PagePerformance}.
+ *
+ * Times are milliseconds since the start of the navigation. {@code values} holds the named metrics ("ttfb",
+ * "domContentLoaded", "load", "lcp", "cls", "longTasks", "longTaskMillis", "resources", "transferKb" and one
+ * "section:&lt;class&gt;" per homepage section); metrics the browser could not report are left out.
+ */
+public record PageMetrics(String page, String url, Map<String, Double> values, List<ResourceTiming> resources) {
+
+    /**
+     * Metric name prefix that selects resources instead of a named value, see {@link #value}.
+     */
+    public static final String RESOURCE_PREFIX = "resource:";
+
+    /**
+     * One Resource Timing entry. Cross-origin resources without Timing-Allow-Origin report a transfer size of 0.
+     */
+    public record ResourceTiming(String name, String initiatorType, double durationMillis, long transferBytes) {
+    }
+
+    /**
+     * The named metric, or for "resource:&lt;text&gt;" the longest duration of the resources whose URL contains
+     * the text. Null if the page has no such metric or no matching resource.
+     */
+    public Double value(String metric) {
+        if (!metric.startsWith(RESOURCE_PREFIX)) {
+            return values.get(metric);
+        }
+        String text = metric.substring(RESOURCE_PREFIX.length());
+        Double longest = null;
+        for (ResourceTiming resource : resources) {
+            if (resource.name().contains(text) && (longest == null || resource.durationMillis() > longest)) {
+                longest = resource.durationMillis();
+            }
+        }
+        return longest;
+    }
+
+    @Override
+    public String toString() {
+        return page + " " + values.entrySet().stream()
+                .map(e -> e.getKey() + "=" + format(e.getValue()))
+                .collect(Collectors.joining(", ", "{", "}"));
+    }
+
+    public static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    static PageMetrics fromScriptResult(String page, Map<?, ?> result) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        ((Map<?, ?>) result.get("values")).forEach((name, value) -> {
+            if (value instanceof Number number && number.doubleValue() >= 0) {
+                values.put(String.valueOf(name), number.doubleValue());
+            }
+        });
+        List<ResourceTiming> resources = new ArrayList<>();
+        for (Object entry : (List<?>) result.get("resources")) {
+            Map<?, ?> row = (Map<?, ?>) entry;
+            resources.add(new ResourceTiming(String.valueOf(row.get("name")), String.valueOf(row.get("type")),
+                    ((Number) row.get("duration")).doubleValue(), ((Number) row.get("transfer")).longValue()));
+        }
+        return new PageMetrics(page, String.valueOf(result.get("url")), values, resources);
+    }
+}
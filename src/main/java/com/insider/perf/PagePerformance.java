@@ -0,0 +1,171 @@
+package com.insider.perf;
+
+import com.insider.fixtures.SiteUrls;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Reads Navigation Timing, Resource Timing, LCP, CLS, long tasks and homepage section render times from the page
+ * the driver is on.
+ *
+ * LCP and layout shifts are kept by the browser's performance timeline, so buffered PerformanceObservers pick them
+ * up after the fact. Long tasks and section render times are not, so on Chromium {@link #prepare} installs an
+ * observer script that runs before any page script of every new document; without DevTools those two come from
+ * whatever the timeline still holds (long tasks) or are left out (sections). -Dperf.metrics=false switches
+ * collection off.
+ */
+public final class PagePerformance {
+    private static final Logger logger = LoggerFactory.getLogger(PagePerformance.class);
+
+    private static final boolean enabled = Boolean.parseBoolean(System.getProperty("perf.metrics", "true"));
+    // How long buffered observers get to deliver before the numbers are read
+    private static final long settleMillis = Long.getLong("perf.settleMillis", 100);
+    // Navigation does not wait for the load event any more (see DriverFactory), the measurement does, up to this long
+    private static final long loadWaitMillis = Long.getLong("perf.loadWaitMillis", 20_000);
+
+    // Runs at document creation: long tasks as they happen, and when each homepage-* section was first painted
+    // (the animation frame after it was inserted)
+    private static final String OBSERVER_SCRIPT =
+            "(function() {" +
+            "  if (window.__pagePerformance) return;" +
+            "  var perf = window.__pagePerformance = {longTasks: [], sections: {}}, pending = [], scheduled = false;" +
+            "  try {" +
+            "    new PerformanceObserver(function(list) {" +
+            "      list.getEntries().forEach(function(e) { perf.longTasks.push(e.duration); });" +
+            "    }).observe({type: 'longtask', buffered: true});" +
+            "  } catch (e) {}" +
+            "  function note(el) {" +
+            "    var classes = el.classList;" +
+            "    for (var i = 0; classes && i < classes.length; i++) {" +
+            "      if (classes[i].indexOf('homepage-') === 0 && !(classes[i] in perf.sections)) pending.push(classes[i]);" +
+            "    }" +
+            "  }" +
+            "  perf.flush = function() {" +
+            "    scheduled = false;" +
+            "    var t = Math.round(performance.now());" +
+            "    pending.forEach(function(c) { if (!(c in perf.sections)) perf.sections[c] = t; });" +
+            "    pending = [];" +
+            "  };" +
+            "  new MutationObserver(function(mutations) {" +
+            "    mutations.forEach(function(m) {" +
+            "      m.addedNodes.forEach(function(n) {" +
+            "        if (n.nodeType !== 1) return;" +
+            "        note(n);" +
+            "        var inner = n.querySelectorAll('[class*=\"homepage-\"]');" +
+            "        for (var i = 0; i < inner.length; i++) note(inner[i]);" +
+            "      });" +
+            "    });" +
+            "    if (pending.length && !scheduled) { scheduled = true; requestAnimationFrame(perf.flush); }" +
+            "  }).observe(document, {childList: true, subtree: true});" +
+            "})();";
+
+    // One executeAsyncScript call, once the page has fired its load event: timing entries are read directly, LCP / CLS
+    // (and long tasks without the observer script) through buffered observers that get settleMs to deliver
+    private static final String COLLECT_SCRIPT =
+            "var done = arguments[arguments.length - 1], settleMs = arguments[0], loadWaitMs = arguments[1], started = Date.now();" +
+            "(function whenLoaded() {" +
+            "if (document.readyState !== 'complete' && Date.now() - started < loadWaitMs) { setTimeout(whenLoaded, 100); return; }" +
+            "var perf = window.__pagePerformance, v = {}, resources = [], transfer = 0;" +
+            "if (perf) perf.flush();" +
+            "var nav = performance.getEntriesByType('navigation')[0];" +
+            "if (nav) {" +
+            "  v.ttfb = Math.round(nav.responseStart);" +
+            "  v.domContentLoaded = Math.round(nav.domContentLoadedEventEnd) || -1;" +
+            "  v.load = Math.round(nav.loadEventEnd) || -1;" +
+            "  transfer += nav.transferSize || 0;" +
+            "}" +
+            "performance.getEntriesByType('resource').forEach(function(r) {" +
+            "  resources.push({name: r.name, type: r.initiatorType, duration: Math.round(r.duration), transfer: r.transferSize || 0});" +
+            "  transfer += r.transferSize || 0;" +
+            "});" +
+            "v.resources = resources.length;" +
+            "v.transferKb = Math.round(transfer / 1024);" +
+            "var supported = PerformanceObserver.supportedEntryTypes || [], lcp = -1, shifts = [];" +
+            "var tasks = perf ? perf.longTasks.slice() : [];" +
+            "function take(entries) {" +
+            "  entries.forEach(function(e) {" +
+            "    if (e.entryType === 'largest-contentful-paint') lcp = Math.max(lcp, e.startTime);" +
+            "    else if (e.entryType === 'layout-shift') { if (!e.hadRecentInput) shifts.push(e); }" +
+            "    else if (e.entryType === 'longtask') tasks.push(e.duration);" +
+            "  });" +
+            "}" +
+            "var observers = ['largest-contentful-paint', 'layout-shift'].concat(perf ? [] : ['longtask'])" +
+            "  .filter(function(type) { return supported.indexOf(type) >= 0; })" +
+            "  .map(function(type) {" +
+            "    var o = new PerformanceObserver(function(list) { take(list.getEntries()); });" +
+            "    o.observe({type: type, buffered: true});" +
+            "    return o;" +
+            "  });" +
+            "setTimeout(function() {" +
+            "  observers.forEach(function(o) { take(o.takeRecords()); o.disconnect(); });" +
+            "  if (lcp >= 0) v.lcp = Math.round(lcp);" +
+            "  if (supported.indexOf('layout-shift') >= 0) {" +
+            // CLS is the largest session window: shifts less than 1s apart, a window spanning at most 5s
+            "    var cls = 0, windowValue = 0, windowStart = 0, last = -Infinity;" +
+            "    shifts.sort(function(a, b) { return a.startTime - b.startTime; }).forEach(function(s) {" +
+            "      if (s.startTime - last > 1000 || s.startTime - windowStart > 5000) { windowValue = 0; windowStart = s.startTime; }" +
+            "      windowValue += s.value; last = s.startTime; cls = Math.max(cls, windowValue);" +
+            "    });" +
+            "    v.cls = Math.round(cls * 10000) / 10000;" +
+            "  }" +
+            "  if (perf || supported.indexOf('longtask') >= 0) {" +
+            "    v.longTasks = tasks.length;" +
+            "    v.longTaskMillis = Math.round(tasks.reduce(function(a, b) { return a + b; }, 0));" +
+            "  }" +
+            "  if (perf) for (var c in perf.sections) v['section:' + c] = perf.sections[c];" +
+            "  done({url: location.href, values: v, resources: resources});" +
+            "}, settleMs);" +
+            "})();";
+
+    private static final Map<WebDriver, Boolean> prepared = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private PagePerformance() {
+    }
+
+    /**
+     * Installs the observer script for every document the driver loads from now on. Called before navigating; only
+     * the first call per driver does anything.
+     */
+    public static void prepare(WebDriver driver) {
+        if (!enabled || !(driver instanceof HasCdp) || prepared.containsKey(driver)) {
+            return;
+        }
+        try {
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", OBSERVER_SCRIPT));
+            prepared.put(driver, true);
+        } catch (RuntimeException e) {
+            logger.debug("Could not install the performance observer script: {}", e.getMessage());
+            prepared.put(driver, false);
+        }
+    }
+
+    /**
+     * Metrics of the page the driver is on, filed under {@code page}. Measurements against the live site are added
+     * to {@link PerformanceHistory}; stand-in and replay runs are not, their numbers say nothing about production.
+     * Returns null if collection is switched off or the page could not be read.
+     */
+    public static PageMetrics measure(WebDriver driver, String page) {
+        if (!enabled) {
+            return null;
+        }
+        PageMetrics metrics;
+        try {
+            Map<?, ?> result = (Map<?, ?>) ((JavascriptExecutor) driver).executeAsyncScript(COLLECT_SCRIPT, settleMillis, loadWaitMillis);
+            metrics = PageMetrics.fromScriptResult(page, result);
+        } catch (RuntimeException e) {
+            logger.warn("Could not collect performance metrics for {}: {}", page, e.getMessage());
+            return null;
+        }
+        if (SiteUrls.isLive()) {
+            PerformanceHistory.record(metrics);
+        }
+        return metrics;
+    }
+}
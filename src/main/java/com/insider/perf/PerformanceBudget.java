@@ -0,0 +1,162 @@
+package com.insider.perf;
+
+import com.insider.fixtures.SiteUrls;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One declarative performance budget, e.g. {@code home lcp < 2.5s hard}.
+ *
+ * Budgets are read from -Dperf.budgets (default perf-budgets.txt), one per line:
+ * {@code <page|*> <metric> <|<= <limit>[ms|s|kb] [soft|hard]}. Metrics are the names in {@link PageMetrics}, or
+ * "resource:&lt;url part&gt;" for the slowest matching resource. A hard budget fails the step that measured the
+ * page, a soft one (the default) is only logged and flagged in the report. Hard budgets are only enforced against a
+ * stand-in or replay server, whose timings depend on the code alone; against the live site they are reported like soft
+ * ones, since CDN, network and third-party tags would otherwise fail the test for reasons outside the code.
+ * -Dperf.hardBudgets=true or false enforces them, or not, in every mode.
+ */
+public record PerformanceBudget(String page, String metric, boolean inclusive, double limit, boolean hard, String text) {
+
+    private static final Pattern LINE = Pattern.compile(
+            "(\\S+)\\s+(\\S+)\\s*(<=?)\\s*([0-9]*\\.?[0-9]+)\\s*(ms|s|kb)?(?:\\s+(soft|hard))?", Pattern.CASE_INSENSITIVE);
+    private static final Path file = Paths.get(System.getProperty("perf.budgets", "perf-budgets.txt"));
+    private static final String hardBudgets = System.getProperty("perf.hardBudgets");
+    private static volatile List<PerformanceBudget> budgets;
+
+    /**
+     * A measured value over its budget.
+     */
+    public record Violation(PerformanceBudget budget, double actual) {
+        public boolean hard() {
+            return budget.hard() && hardEnforced();
+        }
+
+        @Override
+        public String toString() {
+            return budget.metric() + " = " + PageMetrics.format(actual) + " (budget: " + budget.text() + ")";
+        }
+    }
+
+    /**
+     * Parses one budget line.
+     *
+     * @throws IllegalArgumentException if the line is not a budget
+     */
+    public static PerformanceBudget parse(String line) {
+        Matcher matcher = LINE.matcher(line.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a performance budget: '" + line.trim()
+                    + "', expected '<page> <metric> < <limit>[ms|s|kb] [soft|hard]'");
+        }
+        double limit = Double.parseDouble(matcher.group(4));
+        if ("s".equalsIgnoreCase(matcher.group(5))) {
+            limit *= 1000;
+        }
+        return new PerformanceBudget(matcher.group(1), matcher.group(2), matcher.group(3).equals("<="), limit,
+                "hard".equalsIgnoreCase(matcher.group(6)), line.trim().replaceAll("\\s+", " "));
+    }
+
+    // Read per check, the replay server points SiteUrls at itself after this class is loaded
+    private static boolean hardEnforced() {
+        return hardEnforced(SiteUrls.isLive());
+    }
+
+    // -Dperf.hardBudgets wins, otherwise hard budgets only count off the live site
+    static boolean hardEnforced(boolean live) {
+        if (hardBudgets != null && !hardBudgets.isBlank()) {
+            return Boolean.parseBoolean(hardBudgets);
+        }
+        return !live;
+    }
+
+    public boolean appliesTo(String pageName) {
+        return page.equals("*") || page.equals(pageName);
+    }
+
+    public boolean allows(double value) {
+        return inclusive ? value <= limit : value < limit;
+    }
+
+    /**
+     * Budgets of -Dperf.budgets, read on first use. Blank lines and lines starting with # are skipped.
+     *
+     * @throws IllegalArgumentException naming the file and line of a malformed budget, so a typo cannot silently
+     *                                  switch a gate off
+     */
+    public static List<PerformanceBudget> all() {
+        List<PerformanceBudget> loaded = budgets;
+        if (loaded == null) {
+            synchronized (PerformanceBudget.class) {
+                if (budgets == null) {
+                    budgets = load(file);
+                }
+                loaded = budgets;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Every budget of {@link #all()} for {@code metrics.page()} that the measured values break. Budgets whose metric
+     * was not measured are skipped.
+     */
+    public static List<Violation> check(PageMetrics metrics) {
+        List<Violation> violations = new ArrayList<>();
+        for (PerformanceBudget budget : all()) {
+            if (!budget.appliesTo(metrics.page())) {
+                continue;
+            }
+            Double value = metrics.value(budget.metric());
+            if (value != null && !budget.allows(value)) {
+                violations.add(new Violation(budget, value));
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * First budget for this page and metric, or null.
+     */
+    public static PerformanceBudget find(String pageName, String metricName) {
+        for (PerformanceBudget budget : all()) {
+            if (budget.appliesTo(pageName) && budget.metric().equals(metricName)) {
+                return budget;
+            }
+        }
+        return null;
+    }
+
+    static List<PerformanceBudget> load(Path budgetFile) {
+        List<PerformanceBudget> loaded = new ArrayList<>();
+        if (!Files.exists(budgetFile)) {
+            return loaded;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(budgetFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read performance budgets from " + budgetFile, e);
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                loaded.add(parse(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(budgetFile + ":" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,151 @@
+package com.insider.perf;
+
+import com.insider.state.StateFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Page metrics per run, kept so reports can show how each metric moved over the last runs.
+ *
+ * Every measurement of a run is kept in memory; a run's value for a metric is the median of its measurements. At
+ * exit the run is merged into -Dperf.history (default perf-history.tsv: run start millis, page, metric, value) under a
+ * file lock, like the test duration history, and only the last -Dperf.historyRuns runs (20) are kept.
+ */
+public final class PerformanceHistory {
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceHistory.class);
+
+    private static final Path file = Paths.get(System.getProperty("perf.history", "perf-history.tsv"));
+    private static final int maxRuns = Integer.getInteger("perf.historyRuns", 20);
+    private static final long runId = System.currentTimeMillis();
+
+    // page \t metric -> measurements of this run / value per earlier run
+    private static final Map<String, List<Double>> current = new TreeMap<>();
+    private static final Map<String, TreeMap<Long, Double>> past = new TreeMap<>();
+
+    /**
+     * One metric of one page: this run's median and the values of earlier runs, oldest first.
+     */
+    public record Trend(String page, String metric, double current, List<Double> previous) {
+    }
+
+    static {
+        synchronized (past) {
+            if (Files.exists(file)) {
+                try {
+                    parse(Files.readAllLines(file, StandardCharsets.UTF_8), past);
+                } catch (IOException e) {
+                    logger.warn("Could not read performance history {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(PerformanceHistory::save, "perf-history-save"));
+    }
+
+    private PerformanceHistory() {
+    }
+
+    /**
+     * Adds the named values of {@code metrics}, plus the resource metrics that have a budget for this page.
+     */
+    static void record(PageMetrics metrics) {
+        Map<String, Double> values = new TreeMap<>(metrics.values());
+        for (PerformanceBudget budget : PerformanceBudget.all()) {
+            if (budget.appliesTo(metrics.page()) && budget.metric().startsWith(PageMetrics.RESOURCE_PREFIX)) {
+                Double value = metrics.value(budget.metric());
+                if (value != null) {
+                    values.put(budget.metric(), value);
+                }
+            }
+        }
+        synchronized (current) {
+            values.forEach((metric, value) ->
+                    current.computeIfAbsent(key(metrics.page(), metric), k -> new ArrayList<>()).add(value));
+        }
+    }
+
+    /**
+     * Every metric measured in this run, by page and metric name.
+     */
+    public static List<Trend> trends() {
+        List<Trend> trends = new ArrayList<>();
+        Map<String, Double> medians = medians();
+        synchronized (past) {
+            medians.forEach((key, value) -> {
+                String[] parts = key.split("\t", 2);
+                TreeMap<Long, Double> runs = past.get(key);
+                trends.add(new Trend(parts[0], parts[1], value, runs == null ? List.of() : new ArrayList<>(runs.values())));
+            });
+        }
+        return trends;
+    }
+
+    static void save() {
+        Map<String, Double> medians = medians();
+        if (medians.isEmpty()) {
+            return;
+        }
+        try {
+            // Shards finishing at the same time each add their own run
+            StateFile.update(file, lines -> {
+                Map<String, TreeMap<Long, Double>> runs = new TreeMap<>();
+                parse(lines, runs);
+                medians.forEach((key, value) -> runs.computeIfAbsent(key, k -> new TreeMap<>()).put(runId, value));
+
+                TreeSet<Long> runIds = new TreeSet<>(Collections.reverseOrder());
+                runs.values().forEach(values -> runIds.addAll(values.keySet()));
+                long oldestKept = runIds.stream().limit(maxRuns).reduce((a, b) -> b).orElse(runId);
+
+                StringBuilder out = new StringBuilder();
+                runs.forEach((key, values) -> values.tailMap(oldestKept, true).forEach((run, value) ->
+                        out.append(run).append('\t').append(key).append('\t').append(PageMetrics.format(value)).append('\n')));
+                return out.toString();
+            });
+        } catch (IOException e) {
+            logger.warn("Could not save performance history {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, Double> medians() {
+        Map<String, Double> medians = new TreeMap<>();
+        synchronized (current) {
+            current.forEach((key, values) -> {
+                List<Double> sorted = new ArrayList<>(values);
+                Collections.sort(sorted);
+                int middle = sorted.size() / 2;
+                medians.put(key, sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2);
+            });
+        }
+        return medians;
+    }
+
+    private static void parse(List<String> lines, Map<String, TreeMap<Long, Double>> into) {
+        for (String line : lines) {
+            String[] parts = line.split("\t");
+            if (parts.length < 4) {
+                continue;
+            }
+            try {
+                into.computeIfAbsent(key(parts[1], parts[2]), k -> new TreeMap<>())
+                        .put(Long.parseLong(parts[0]), Double.parseDouble(parts[3]));
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed performance history line: {}", line);
+            }
+        }
+    }
+
+    private static String key(String page, String metric) {
+        return page + "\t" + metric;
+    }
+}
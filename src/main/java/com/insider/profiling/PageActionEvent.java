@@ -0,0 +1,56 @@
+package com.insider.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event around one BasePage primitive (click, find, getText, ...).
+ * Duration and thread are recorded by JFR itself. When no recording is running the fields are never filled in,
+ * so the cost is a begin/end pair.
+ */
+@Name("com.insider.PageAction")
+@Label("Page Action")
+@Category({"Insider", "Page Objects"})
+@Description("A BasePage primitive executed against the browser")
+@StackTrace(false)
+public class PageActionEvent extends Event {
+
+    @Label("Action")
+    String action;
+
+    @Label("Locator")
+    String locator;
+
+    @Label("Page")
+    String page;
+
+    @Label("Test")
+    String test;
+
+    @Label("Outcome")
+    String outcome;
+
+    public static PageActionEvent start(String action, Object locator, Object page) {
+        PageActionEvent event = new PageActionEvent();
+        if (event.isEnabled()) {
+            event.action = action;
+            event.locator = locator == null ? null : locator.toString();
+            event.page = page.getClass().getSimpleName();
+            event.test = TestNames.current();
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish(boolean success) {
+        end();
+        if (shouldCommit()) {
+            outcome = success ? "success" : "failure";
+            commit();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.insider.profiling;
+
+import com.insider.state.StateFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Round-trip budgets per flow (see {@link RoundTrips}), kept in -Droundtrips.budgets (default
+ * round-trip-budgets.tsv): the flow, then how many commands it sent within one test when the budget was recorded.
+ *
+ * A flow over its budget by more than -Droundtrips.tolerance (0.2, and at least 5 commands) fails the test, so a
+ * change that puts a lookup into a loop shows up in CI rather than as a slowly growing suite. Flows without a budget
+ * are only reported. -Droundtrips.updateBudgets=true records the run's counts instead of checking them; commit the
+ * file afterwards. Recording takes a file lock and merges with the file on disk, so shards can record together.
+ */
+public final class RoundTripBudgets {
+    private static final Logger logger = LoggerFactory.getLogger(RoundTripBudgets.class);
+
+    private static final Path file = Paths.get(System.getProperty("roundtrips.budgets", "round-trip-budgets.tsv"));
+    private static final double tolerance = Double.parseDouble(System.getProperty("roundtrips.tolerance", "0.2"));
+    private static final long MIN_SLACK = 5;
+    private static final boolean updating = Boolean.parseBoolean(System.getProperty("roundtrips.updateBudgets", "false"));
+    private static volatile Map<String, Long> budgets;
+
+    /**
+     * A flow that sent more commands in a test than its budget allows.
+     */
+    public record Violation(String flow, long commands, long budget, long limit) {
+        @Override
+        public String toString() {
+            return flow + " sent " + commands + " commands (budget " + budget + ", limit " + limit + ")";
+        }
+    }
+
+    private RoundTripBudgets() {
+    }
+
+    /**
+     * Whether this run records budgets rather than checking them.
+     */
+    public static boolean updating() {
+        return updating;
+    }
+
+    /**
+     * Budget of the flow, or -1 if it has none.
+     */
+    public static long budget(String flow) {
+        return all().getOrDefault(flow, -1L);
+    }
+
+    /**
+     * Most commands a flow with this budget may send before the test fails.
+     */
+    public static long limit(long budget) {
+        return Math.max(budget + MIN_SLACK, (long) Math.floor(budget * (1 + tolerance)));
+    }
+
+    /**
+     * The flows of one test that are over their limit. Empty while budgets are being recorded.
+     */
+    public static List<Violation> check(List<RoundTrips.FlowCount> flows) {
+        List<Violation> violations = new ArrayList<>();
+        if (updating) {
+            return violations;
+        }
+        for (RoundTrips.FlowCount flow : flows) {
+            long budget = budget(flow.flow());
+            if (budget >= 0 && flow.commands() > limit(budget)) {
+                violations.add(new Violation(flow.flow(), flow.commands(), budget, limit(budget)));
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Writes the most commands each flow sent within one test of this run as its new budget. Flows this run did not
+     * reach keep theirs.
+     */
+    public static synchronized void record(List<RoundTrips.FlowCount> flows) {
+        try {
+            StateFile.update(file, lines -> {
+                Map<String, Long> merged = parse(lines);
+                int recorded = 0;
+                for (RoundTrips.FlowCount flow : flows) {
+                    if (flow.maxPerTest() > 0) {
+                        merged.put(flow.flow(), flow.maxPerTest());
+                        recorded++;
+                    }
+                }
+
+                StringBuilder out = new StringBuilder("# flow\tround trips per test (recorded with -Droundtrips.updateBudgets=true)\n");
+                merged.forEach((flow, budget) -> out.append(flow).append('\t').append(budget).append('\n'));
+                budgets = merged;
+                logger.info("Recorded round-trip budgets of {} flows in {}", recorded, file);
+                return out.toString();
+            });
+        } catch (IOException e) {
+            logger.warn("Could not save round-trip budgets {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, Long> all() {
+        Map<String, Long> loaded = budgets;
+        if (loaded == null) {
+            synchronized (RoundTripBudgets.class) {
+                if (budgets == null) {
+                    budgets = load();
+                }
+                loaded = budgets;
+            }
+        }
+        return loaded;
+    }
+
+    private static Map<String, Long> load() {
+        if (!Files.exists(file)) {
+            return new TreeMap<>();
+        }
+        try {
+            return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read round-trip budgets from " + file, e);
+        }
+    }
+
+    // A malformed line fails loudly, so a typo cannot silently switch a gate off
+    private static Map<String, Long> parse(List<String> lines) {
+        Map<String, Long> parsed = new TreeMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException("expected '<flow> <round trips>'");
+                }
+                parsed.put(parts[0], Long.parseLong(parts[1]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(file + ":" + (i + 1) + ": not a round-trip budget: '" + line + "' ("
+                        + e.getMessage() + ")", e);
+            }
+        }
+        return parsed;
+    }
+}
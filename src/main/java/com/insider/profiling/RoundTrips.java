@@ -0,0 +1,208 @@
+package com.insider.profiling;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the WebDriver commands sent to the browser and what they cost, per flow.
+ *
+ * A flow is the page-object method that caused the command: the outermost com.insider.pages frame on the stack, so
+ * everything QAJobsPage.verifyJobDetails does through BasePage and the waits counts for verifyJobDetails. Commands
+ * sent outside page objects (pool resets, snapshots, the tests themselves) go to the innermost com.insider frame.
+ * Commands are counted for the whole run and, between {@link #startTest} and {@link #endTest}, for the test on the
+ * calling thread, which is what {@link RoundTripBudgets} checks.
+ *
+ * The time of a command is measured around the call, so it is the round trip plus whatever the browser does for it
+ * (an async script that waits in the page counts fully). -Droundtrips.count=false leaves drivers undecorated.
+ */
+public final class RoundTrips {
+
+    private static final boolean enabled = Boolean.parseBoolean(System.getProperty("roundtrips.count", "true"));
+    private static final String PAGES_PACKAGE = "com.insider.pages.";
+
+    // Calls the decorator sees that never leave the JVM
+    private static final Set<String> LOCAL_METHODS = Set.of("manage", "switchTo", "navigate", "timeouts", "window",
+            "logs", "getWrappedDriver", "getWrappedElement", "getCapabilities", "getDevTools", "maybeGetDevTools",
+            "getBiDi", "maybeGetBiDi", "getCoordinates", "toString", "hashCode", "equals");
+
+    private static final StackWalker walker = StackWalker.getInstance();
+    private static final Map<String, Counter> run = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, Counter>> test = new ThreadLocal<>();
+    private static final ThreadLocal<long[]> callStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Commands of one flow: how many, their total time, and how many of each kind (e.g. "findElements",
+     * "element.getText").
+     *
+     * @param maxPerTest most commands the flow sent within one test, 0 if it only ran outside tests
+     */
+    public record FlowCount(String flow, long commands, long millis, long maxPerTest, Map<String, Long> byCommand) {
+
+        /**
+         * The most frequent command kinds, e.g. "findElement x120, element.getText x96".
+         */
+        public String topCommands(int limit) {
+            List<String> top = new ArrayList<>();
+            byCommand.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(limit)
+                    .forEach(e -> top.add(e.getKey() + " x" + e.getValue()));
+            return String.join(", ", top);
+        }
+
+        @Override
+        public String toString() {
+            return flow + ": " + commands + " commands, " + millis + " ms (" + topCommands(3) + ")";
+        }
+    }
+
+    private static final class Counter {
+        final LongAdder commands = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final AtomicLong maxPerTest = new AtomicLong();
+        final Map<String, LongAdder> byCommand = new ConcurrentHashMap<>();
+
+        void add(String command, long elapsed) {
+            commands.increment();
+            nanos.add(elapsed);
+            byCommand.computeIfAbsent(command, k -> new LongAdder()).increment();
+        }
+
+        FlowCount snapshot(String flow) {
+            Map<String, Long> kinds = new HashMap<>();
+            byCommand.forEach((command, count) -> kinds.put(command, count.sum()));
+            return new FlowCount(flow, commands.sum(), nanos.sum() / 1_000_000, maxPerTest.get(), kinds);
+        }
+    }
+
+    private static final WebDriverListener listener = new WebDriverListener() {
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            callStart.get()[0] = System.nanoTime();
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            count(target, method);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            // A findElement that finds nothing is a round trip like any other
+            count(target, method);
+        }
+    };
+
+    private RoundTrips() {
+    }
+
+    /**
+     * The driver with every command counted. Sessions are decorated once, when the pool creates them; the decorated
+     * driver still offers everything the original does (DevTools, screenshots, scripts).
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        if (!enabled) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(listener).decorate(driver);
+    }
+
+    /**
+     * Starts counting the commands of the calling thread's test.
+     */
+    public static void startTest() {
+        test.set(new HashMap<>());
+    }
+
+    /**
+     * Stops counting for the calling thread's test and returns its flows, most commands first. Empty if
+     * {@link #startTest} was not called.
+     */
+    public static List<FlowCount> endTest() {
+        Map<String, Counter> counters = test.get();
+        test.remove();
+        if (counters == null) {
+            return List.of();
+        }
+        List<FlowCount> flows = new ArrayList<>();
+        counters.forEach((flow, counter) -> {
+            FlowCount count = counter.snapshot(flow);
+            run.computeIfAbsent(flow, k -> new Counter()).maxPerTest.accumulateAndGet(count.commands(), Math::max);
+            flows.add(count);
+        });
+        flows.sort(Comparator.comparingLong(FlowCount::commands).reversed());
+        return flows;
+    }
+
+    /**
+     * Every flow of the run so far, most commands first.
+     */
+    public static List<FlowCount> snapshot() {
+        List<FlowCount> flows = new ArrayList<>();
+        run.forEach((flow, counter) -> flows.add(counter.snapshot(flow)));
+        flows.sort(Comparator.comparingLong(FlowCount::commands).reversed());
+        return flows;
+    }
+
+    private static void count(Object target, Method method) {
+        if (LOCAL_METHODS.contains(method.getName())) {
+            return;
+        }
+        long elapsed = System.nanoTime() - callStart.get()[0];
+        String flow = flowOf();
+        String command = prefixOf(target) + method.getName();
+        run.computeIfAbsent(flow, k -> new Counter()).add(command, elapsed);
+        Map<String, Counter> counters = test.get();
+        if (counters != null) {
+            counters.computeIfAbsent(flow, k -> new Counter()).add(command, elapsed);
+        }
+    }
+
+    private static String prefixOf(Object target) {
+        if (target instanceof WebDriver) return "";
+        if (target instanceof WebElement) return "element.";
+        if (target instanceof WebDriver.Navigation) return "navigate.";
+        if (target instanceof WebDriver.TargetLocator) return "switchTo.";
+        if (target instanceof WebDriver.Timeouts) return "timeouts.";
+        if (target instanceof WebDriver.Window) return "window.";
+        if (target instanceof Alert) return "alert.";
+        return "manage.";
+    }
+
+    // A stack walk per command costs microseconds, the command itself milliseconds
+    private static String flowOf() {
+        return walker.walk(frames -> {
+            String outermostPage = null;
+            String innermostOwn = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith("com.insider.") || className.startsWith("com.insider.profiling.")
+                        || frame.getMethodName().startsWith("lambda$")) {
+                    continue;
+                }
+                String name = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                if (className.startsWith(PAGES_PACKAGE)) {
+                    outermostPage = name;
+                } else if (innermostOwn == null) {
+                    innermostOwn = name;
+                }
+            }
+            return outermostPage != null ? outermostPage : innermostOwn != null ? innermostOwn : "(other)";
+        });
+    }
+}
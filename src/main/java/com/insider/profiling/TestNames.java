@@ -0,0 +1,24 @@
+package com.insider.profiling;
+
+/**
+ * Name of the test running on the current thread, so events raised deep inside page objects can be attributed to it.
+ * Set by the test listener when a test starts and cleared when it ends.
+ */
+public final class TestNames {
+    private static final ThreadLocal<String> current = new ThreadLocal<>();
+
+    private TestNames() {
+    }
+
+    public static void set(String testName) {
+        current.set(testName);
+    }
+
+    public static void clear() {
+        current.remove();
+    }
+
+    public static String current() {
+        return current.get();
+    }
+}
@@ -0,0 +1,62 @@
+package com.insider.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event around a named wait (job list load, Lever page load, in-browser conditions, ...).
+ */
+@Name("com.insider.Wait")
+@Label("Named Wait")
+@Category({"Insider", "Waits"})
+@Description("A named wait in a page object and how it ended")
+@StackTrace(false)
+public class WaitEvent extends Event {
+
+    @Label("Wait")
+    String name;
+
+    @Label("Page")
+    String page;
+
+    @Label("Test")
+    String test;
+
+    @Label("Timeout")
+    @Timespan(Timespan.MILLISECONDS)
+    long timeout;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * @param page the page object waiting, may be null for waits not tied to one
+     */
+    public static WaitEvent start(String name, Object page, long timeoutMillis) {
+        WaitEvent event = new WaitEvent();
+        if (event.isEnabled()) {
+            event.name = name;
+            event.page = page == null ? null : page.getClass().getSimpleName();
+            event.test = TestNames.current();
+            event.timeout = timeoutMillis;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * @param outcome e.g. "success", "timeout" or "failure"
+     */
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.insider.reporting;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Handle for a screenshot queued in the {@link ScreenshotPipeline}. The image is taken when the handle is created;
+ * the file it ends up in is only known once the background writer has hashed it.
+ */
+public final class Screenshot {
+    private final long id;
+    private final String label;
+    final CompletableFuture<Path> file = new CompletableFuture<>();
+
+    Screenshot(long id, String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Token that stands for the image's path in reports written before the file exists,
+     * see {@link ScreenshotPipeline#resolvePlaceholders}. The pipeline keeps the handle until then.
+     */
+    public String placeholder() {
+        ScreenshotPipeline.track(this);
+        return "@screenshot:" + id + "@";
+    }
+
+    /**
+     * Waits for the image to be written. Returns null if it was dropped or could not be written in time.
+     */
+    public Path awaitFile(Duration timeout) {
+        try {
+            return file.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
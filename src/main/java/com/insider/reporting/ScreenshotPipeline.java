@@ -0,0 +1,222 @@
+package com.insider.reporting;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Takes screenshots on the test thread and leaves everything else to a small background executor.
+ *
+ * The test thread only pays for the WebDriver call that grabs the image (as the base64 string the driver already
+ * sends). Decoding, the optional JPEG re-encoding (-Dscreenshots.format=jpg), content hashing and writing to
+ * -Dscreenshots.dir (default target/screenshots) run on -Dscreenshots.threads writer threads. Files are named by
+ * their SHA-256, so identical images (e.g. the same error page captured twice) are stored once. When the writers fall
+ * more than -Dscreenshots.queue images behind, new images are dropped instead of making the test wait.
+ *
+ * Every capture is recorded as a SCREENSHOT step of the current test, so reports can link it.
+ */
+public final class ScreenshotPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotPipeline.class);
+
+    private static final Path dir = Paths.get(System.getProperty("screenshots.dir", "target/screenshots"));
+    private static final boolean jpeg = System.getProperty("screenshots.format", "png").equalsIgnoreCase("jpg");
+    private static final boolean stepScreenshots = Boolean.parseBoolean(System.getProperty("screenshots.steps", "false"));
+    private static final Pattern PLACEHOLDER = Pattern.compile("@screenshot:(\\d+)@");
+
+    private static final AtomicLong ids = new AtomicLong();
+    // Screenshots only referred to by id: in a spilled step or in a report placeholder not resolved yet
+    private static final Map<Long, Screenshot> screenshots = new ConcurrentHashMap<>();
+    private static final ThreadLocal<By> failedLocator = new ThreadLocal<>();
+    private static final ThreadPoolExecutor writers;
+
+    static {
+        int threads = Integer.getInteger("screenshots.threads", 2);
+        writers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Integer.getInteger("screenshots.queue", 32)), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        writers.allowCoreThreadTimeOut(true);
+    }
+
+    private ScreenshotPipeline() {
+    }
+
+    /**
+     * Remembers the locator a page-object action just failed on, so the failure screenshot can be clipped to it.
+     */
+    public static void markFailed(By locator) {
+        failedLocator.set(locator);
+    }
+
+    /**
+     * Failure screenshot: clipped to the locator of the last failed page-object action of this thread if that element
+     * can still be found, the full page otherwise.
+     */
+    public static Screenshot captureFailure(WebDriver driver, String label) {
+        By locator = failedLocator.get();
+        failedLocator.remove();
+        return capture(driver, label, locator);
+    }
+
+    /**
+     * Screenshot after a successful step, only taken with -Dscreenshots.steps=true. Labelled {@code action} followed
+     * by the locator, put together only when the screenshot is taken.
+     */
+    public static void captureStep(WebDriver driver, String action, By locator) {
+        if (stepScreenshots) {
+            capture(driver, action + " " + locator, locator);
+        }
+    }
+
+    /**
+     * Takes a screenshot of {@code clip} (or the full page when null or not found) and queues it for writing.
+     * Returns null if the driver could not take one.
+     */
+    public static Screenshot capture(WebDriver driver, String label, By clip) {
+        String base64;
+        try {
+            base64 = grab(driver, clip);
+        } catch (Exception e) {
+            logger.warn("Could not take screenshot '{}': {}", label, e.getMessage());
+            return null;
+        }
+
+        Screenshot screenshot = new Screenshot(ids.incrementAndGet(), label);
+        try {
+            writers.execute(() -> write(screenshot, base64));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Screenshot writers are busy, dropping screenshot '{}'", label);
+            screenshot.file.completeExceptionally(e);
+        }
+        StepRecorder.note(StepType.SCREENSHOT, screenshot);
+        return screenshot;
+    }
+
+    /**
+     * Keeps {@code screenshot} findable by its id until {@link #release} or {@link #resolvePlaceholders} hands it out.
+     */
+    static void track(Screenshot screenshot) {
+        screenshots.put(screenshot.id(), screenshot);
+    }
+
+    /**
+     * Hands out and forgets the screenshot with the given {@link Screenshot#id()}, or null if there is none.
+     */
+    static Screenshot release(long id) {
+        return screenshots.remove(id);
+    }
+
+    /**
+     * Replaces every {@link Screenshot#placeholder()} in {@code text} with the path of the written image relative to
+     * {@code baseDir}, waiting up to {@code timeout} per image. Images that were dropped are left as "#".
+     * A placeholder is resolved once: the screenshot is forgotten afterwards.
+     */
+    public static String resolvePlaceholders(String text, Path baseDir, Duration timeout) {
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        if (!matcher.find()) {
+            return text;
+        }
+        StringBuilder out = new StringBuilder();
+        do {
+            Screenshot screenshot = release(Long.parseLong(matcher.group(1)));
+            Path file = screenshot == null ? null : screenshot.awaitFile(timeout);
+            String link = file == null ? "#"
+                    : baseDir.toAbsolutePath().relativize(file.toAbsolutePath()).toString().replace('\\', '/');
+            matcher.appendReplacement(out, Matcher.quoteReplacement(link));
+        } while (matcher.find());
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String grab(WebDriver driver, By clip) {
+        if (clip != null) {
+            List<WebElement> elements = driver.findElements(clip);
+            if (!elements.isEmpty()) {
+                try {
+                    return elements.get(0).getScreenshotAs(OutputType.BASE64);
+                } catch (Exception e) {
+                    logger.debug("Could not clip screenshot to {}, taking the full page: {}", clip, e.getMessage());
+                }
+            }
+        }
+        if (driver instanceof HasCdp) {
+            // Whole scrollable page rather than just the viewport
+            Map<String, Object> result = ((HasCdp) driver).executeCdpCommand("Page.captureScreenshot",
+                    Map.of("format", "png", "captureBeyondViewport", true));
+            return (String) result.get("data");
+        }
+        return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+    }
+
+    private static void write(Screenshot screenshot, String base64) {
+        try {
+            byte[] image = Base64.getMimeDecoder().decode(base64);
+            if (jpeg) {
+                image = toJpeg(image);
+            }
+            Path file = dir.resolve(sha256(image) + (jpeg ? ".jpg" : ".png"));
+            if (!Files.exists(file)) {
+                Files.createDirectories(dir);
+                // Written under a temp name first so a reader never sees half an image
+                Path temp = Files.createTempFile(dir, "screenshot", ".tmp");
+                Files.write(temp, image);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            screenshot.file.complete(file);
+        } catch (Exception e) {
+            logger.warn("Could not write screenshot '{}': {}", screenshot.label(), e.getMessage());
+            screenshot.file.completeExceptionally(e);
+        }
+    }
+
+    private static byte[] toJpeg(byte[] png) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        // JPEG has no alpha channel
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        rgb.createGraphics().drawImage(source, 0, 0, java.awt.Color.WHITE, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(rgb, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.insider.reporting;
+
+/**
+ * Single-producer ring buffer of steps for one test thread.
+ *
+ * The owning thread writes into preallocated parallel arrays and publishes with a volatile head, so recording a step
+ * allocates nothing. Draining (by the background drainer or by the owner itself) happens under the buffer's monitor.
+ */
+final class StepBuffer {
+    private final int mask;
+    private final byte[] types;
+    private final int[] locatorIds;
+    private final Object[] details;
+    private final Object[] tests;
+    private final long[] epochMillis;
+    private final long[] durations;
+    private final boolean[] failed;
+
+    private final Thread owner;
+    private final String threadName;
+    private volatile long head;
+    private volatile long tail;
+    Object currentTest;
+
+    StepBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        mask = size - 1;
+        types = new byte[size];
+        locatorIds = new int[size];
+        details = new Object[size];
+        tests = new Object[size];
+        epochMillis = new long[size];
+        durations = new long[size];
+        failed = new boolean[size];
+        owner = Thread.currentThread();
+        threadName = owner.getName();
+    }
+
+    void add(StepType type, int locatorId, Object detail, long startNanos, boolean isFailure) {
+        long h = head;
+        if (h - tail > mask) {
+            // Full: the drainer fell behind. Rare, so the owner pays for draining its own buffer.
+            StepRecorder.drain(this);
+        }
+        int i = (int) (h & mask);
+        types[i] = (byte) type.ordinal();
+        locatorIds[i] = locatorId;
+        details[i] = detail;
+        tests[i] = currentTest;
+        epochMillis[i] = System.currentTimeMillis();
+        durations[i] = System.nanoTime() - startNanos;
+        failed[i] = isFailure;
+        head = h + 1;
+    }
+
+    synchronized void drainTo(StepSink sink) {
+        long h = head;
+        for (long t = tail; t < h; t++) {
+            int i = (int) (t & mask);
+            StepEvent event = new StepEvent(StepRecorder.TYPES[types[i]], StepRecorder.locatorFor(locatorIds[i]), details[i],
+                    epochMillis[i], durations[i], failed[i], threadName);
+            sink.accept(tests[i], event);
+            details[i] = null;
+            tests[i] = null;
+        }
+        tail = h;
+    }
+
+    boolean isOwnerAlive() {
+        return owner.isAlive();
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    interface StepSink {
+        void accept(Object test, StepEvent event);
+    }
+}
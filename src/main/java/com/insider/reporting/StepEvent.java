@@ -0,0 +1,17 @@
+package com.insider.reporting;
+
+/**
+ * One recorded step, as handed to reports and logs after it has been drained from a thread's ring buffer.
+ * The text is only built when {@link #render()} is called.
+ *
+ * @param locator       the By (or WebElement) the step acted on, null for test-level steps
+ * @param epochMillis   wall-clock time the step finished
+ * @param durationNanos time the step took
+ */
+public record StepEvent(StepType type, Object locator, Object detail, long epochMillis, long durationNanos,
+                        boolean failed, String thread) {
+
+    public String render() {
+        return type.render(detail, locator, failed);
+    }
+}
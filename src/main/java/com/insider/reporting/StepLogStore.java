@@ -0,0 +1,221 @@
+package com.insider.reporting;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Steps filed per test until a report takes them, with a fixed heap budget.
+ *
+ * Up to -Dsteps.heapBudget steps (across all tests) are kept as objects. Past that, new steps are rendered and
+ * appended to a memory-mapped segment file of the delivering thread (-Dsteps.spillDir, default target/step-spill;
+ * -Dsteps.segmentBytes each), and the test only keeps the positions of its records. Once a test has spilled, the rest
+ * of its steps follow it to disk, so reading its heap part and then its spilled part returns them in order.
+ * Segments are deleted when the JVM exits.
+ *
+ * Spilled steps come back pre-rendered: as NOTE steps carrying their original text, except screenshots, which are
+ * restored as SCREENSHOT steps so reports can still link the image.
+ */
+final class StepLogStore {
+    private static final Logger logger = LoggerFactory.getLogger(StepLogStore.class);
+
+    private static final int heapBudget = Integer.getInteger("steps.heapBudget", 10_000);
+    private static final int segmentBytes = Integer.getInteger("steps.segmentBytes", 16 << 20);
+    private static final Path spillDir = Paths.get(System.getProperty("steps.spillDir", "target/step-spill"));
+
+    private static final byte KIND_TEXT = 0;
+    private static final byte KIND_SCREENSHOT = 1;
+
+    private final Map<Object, TestLog> logs = new ConcurrentHashMap<>();
+    private final AtomicInteger onHeap = new AtomicInteger();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Segment> currentSegment = new ThreadLocal<>();
+
+    // Steps of one test: the ones still on the heap, then the positions of the spilled ones
+    private static final class TestLog {
+        final Queue<StepEvent> heap = new ArrayDeque<>();
+        long[] spilled = new long[0];
+        int spilledCount;
+    }
+
+    // One memory-mapped file, written by a single thread and read by whoever takes a test's steps
+    private static final class Segment {
+        final int id;
+        final Path file;
+        final MappedByteBuffer buffer;
+
+        Segment(int id, Path file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+    StepLogStore() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::deleteSegments, "step-spill-cleanup"));
+    }
+
+    void append(Object test, StepEvent event) {
+        TestLog log = logs.computeIfAbsent(test, k -> new TestLog());
+        synchronized (log) {
+            if (log.spilledCount == 0 && onHeap.get() < heapBudget) {
+                log.heap.add(event);
+                onHeap.incrementAndGet();
+                return;
+            }
+            long position = spill(event);
+            if (log.spilledCount == log.spilled.length) {
+                log.spilled = Arrays.copyOf(log.spilled, Math.max(16, log.spilled.length * 2));
+            }
+            log.spilled[log.spilledCount++] = position;
+        }
+    }
+
+    /**
+     * Hands the steps of {@code test} to {@code reader} in the order they were recorded and forgets them.
+     * Spilled steps are read back one at a time, so only the step being handled is on the heap.
+     */
+    void take(Object test, Consumer<StepEvent> reader) {
+        TestLog log = logs.remove(test);
+        if (log == null) {
+            return;
+        }
+        synchronized (log) {
+            onHeap.addAndGet(-log.heap.size());
+            for (StepEvent event : log.heap) {
+                reader.accept(event);
+            }
+            for (int i = 0; i < log.spilledCount; i++) {
+                reader.accept(read(log.spilled[i]));
+            }
+        }
+    }
+
+    // Position = segment id in the high 32 bits, offset in the low 32 bits
+    private long spill(StepEvent event) {
+        byte[] record = encode(event);
+        Segment segment = currentSegment.get();
+        if (segment == null || segment.buffer.remaining() < record.length + 4) {
+            segment = newSegment(record.length + 4);
+            currentSegment.set(segment);
+        }
+        int offset = segment.buffer.position();
+        segment.buffer.putInt(record.length).put(record);
+        return ((long) segment.id << 32) | offset;
+    }
+
+    private StepEvent read(long position) {
+        Segment segment = segments.get((int) (position >>> 32));
+        ByteBuffer in = segment.buffer.duplicate();
+        in.position((int) position);
+        byte[] record = new byte[in.getInt()];
+        in.get(record);
+        return decode(record);
+    }
+
+    private Segment newSegment(int minimumBytes) {
+        try {
+            Files.createDirectories(spillDir);
+            Path file = Files.createTempFile(spillDir, "steps-" + Thread.currentThread().getName().replaceAll("[^A-Za-z0-9-]", "_") + "-", ".seg");
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, minimumBytes));
+            }
+            synchronized (segments) {
+                Segment segment = new Segment(segments.size(), file, buffer);
+                segments.add(segment);
+                if (segment.id == 0) {
+                    logger.info("Step heap budget of {} reached, spilling further steps to {}", heapBudget, spillDir);
+                }
+                return segment;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create step spill segment in " + spillDir, e);
+        }
+    }
+
+    private static byte[] encode(StepEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (event.detail() instanceof Screenshot screenshot) {
+                // Only the id goes to disk, so the pipeline keeps the handle until the step is read back
+                ScreenshotPipeline.track(screenshot);
+                out.writeByte(KIND_SCREENSHOT);
+                out.writeLong(screenshot.id());
+            } else {
+                out.writeByte(KIND_TEXT);
+                writeString(out, event.render());
+            }
+            out.writeLong(event.epochMillis());
+            out.writeLong(event.durationNanos());
+            out.writeBoolean(event.failed());
+            writeString(out, event.thread());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static StepEvent decode(byte[] record) {
+        ByteBuffer in = ByteBuffer.wrap(record);
+        byte kind = in.get();
+        StepType type = StepType.NOTE;
+        Object detail;
+        if (kind == KIND_SCREENSHOT) {
+            long id = in.getLong();
+            Screenshot screenshot = ScreenshotPipeline.release(id);
+            type = screenshot == null ? StepType.NOTE : StepType.SCREENSHOT;
+            detail = screenshot == null ? "Screenshot #" + id : screenshot;
+        } else {
+            detail = readString(in);
+        }
+        long epochMillis = in.getLong();
+        long durationNanos = in.getLong();
+        boolean failed = in.get() != 0;
+        return new StepEvent(type, null, detail, epochMillis, durationNanos, failed, readString(in));
+    }
+
+    // Length-prefixed UTF-8, unlike writeUTF not limited to 64KB
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] utf8 = new byte[in.getInt()];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private void deleteSegments() {
+        for (Segment segment : segments) {
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException ignored) {
+                // Temp file under target/, cleaned with the build anyway
+            }
+        }
+    }
+}
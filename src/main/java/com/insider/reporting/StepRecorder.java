@@ -0,0 +1,147 @@
+package com.insider.reporting;
+
+import org.openqa.selenium.By;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Structured replacement for logging every page-object step through SLF4J and Reporter.log.
+ *
+ * Recording a step only writes a few primitives and references into the calling thread's {@link StepBuffer}; no
+ * strings are built and no shared lock is taken. A background thread drains the buffers every 100ms, logs the steps
+ * to Logback and files them under the test they belong to in a {@link StepLogStore}, which keeps heap use bounded
+ * however many steps a run produces. Reports pick them up with {@link #forEachStep} and only then render them to text.
+ */
+public final class StepRecorder {
+    private static final Logger logger = LoggerFactory.getLogger("steps");
+
+    static final StepType[] TYPES = StepType.values();
+    private static final int BUFFER_CAPACITY = Integer.getInteger("steps.bufferSize", 1024);
+
+    private static final List<StepBuffer> buffers = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<StepBuffer> buffer = ThreadLocal.withInitial(() -> {
+        StepBuffer b = new StepBuffer(BUFFER_CAPACITY);
+        buffers.add(b);
+        return b;
+    });
+
+    // Locators are interned once, after that a step only stores the int id.
+    private static final Map<By, Integer> locatorIds = new ConcurrentHashMap<>();
+    private static final List<By> locators = Collections.synchronizedList(new ArrayList<>(Collections.singletonList(null)));
+
+    private static final StepLogStore store = new StepLogStore();
+
+    static {
+        Thread drainer = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                drainAll();
+            }
+        }, "step-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(StepRecorder::drainAll, "step-drainer-shutdown"));
+    }
+
+    private StepRecorder() {
+    }
+
+    /**
+     * Records a finished step on the calling thread.
+     *
+     * @param startNanos System.nanoTime() taken when the step began
+     */
+    public static void record(StepType type, By locator, Object detail, long startNanos, boolean failed) {
+        buffer.get().add(type, idOf(locator), detail, startNanos, failed);
+    }
+
+    /**
+     * Records an instantaneous step, e.g. a test lifecycle event.
+     */
+    public static void note(StepType type, Object detail) {
+        buffer.get().add(type, 0, detail, System.nanoTime(), false);
+    }
+
+    /**
+     * Files every following step of the calling thread under {@code test} (typically the ITestResult).
+     */
+    public static void beginTest(Object test) {
+        buffer.get().currentTest = test;
+    }
+
+    public static void endTest() {
+        buffer.get().currentTest = null;
+    }
+
+    /**
+     * Hands the steps recorded for {@code test} to {@code reader}, in the order they happened on its thread, and
+     * forgets them. Steps that were spilled to disk are streamed back one by one.
+     */
+    public static void forEachStep(Object test, Consumer<StepEvent> reader) {
+        drain(buffer.get());
+        store.take(test, reader);
+    }
+
+    /**
+     * Returns and forgets the steps recorded for {@code test}. Prefer {@link #forEachStep} for tests with many steps.
+     */
+    public static List<StepEvent> takeSteps(Object test) {
+        List<StepEvent> steps = new ArrayList<>();
+        forEachStep(test, steps::add);
+        return steps;
+    }
+
+    static void drain(StepBuffer b) {
+        b.drainTo(StepRecorder::deliver);
+    }
+
+    static By locatorFor(int id) {
+        return id == 0 ? null : locators.get(id);
+    }
+
+    private static void drainAll() {
+        for (StepBuffer b : buffers) {
+            drain(b);
+            if (!b.isOwnerAlive() && b.isEmpty()) {
+                buffers.remove(b);
+            }
+        }
+    }
+
+    private static void deliver(Object test, StepEvent event) {
+        if (logger.isInfoEnabled()) {
+            logger.info("[{}] {} ({} ms)", event.thread(), event.render(), event.durationNanos() / 1_000_000);
+        }
+        if (test != null) {
+            store.append(test, event);
+        }
+    }
+
+    private static int idOf(By locator) {
+        if (locator == null) {
+            return 0;
+        }
+        Integer id = locatorIds.get(locator);
+        if (id != null) {
+            return id;
+        }
+        synchronized (locators) {
+            return locatorIds.computeIfAbsent(locator, l -> {
+                locators.add(l);
+                return locators.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.insider.reporting;
+
+/**
+ * Kinds of steps the {@link StepRecorder} knows how to render.
+ * Formats get the step detail as %1$s and the locator (or element) as %2$s.
+ */
+public enum StepType {
+    CLICK("Clicking element: %2$s", "Failed to click element: %2$s"),
+    CLICK_ELEMENT("Clicking element: %1$s", "Failed to click element: %1$s"),
+    TYPE("Typing '%1$s' into element: %2$s", "Failed to type '%1$s' into element: %2$s"),
+    SELECT("Selecting '%1$s' from: %2$s", "Failed to select '%1$s' from: %2$s"),
+    TEST_STARTED("Test Started: %1$s", "Test Started: %1$s"),
+    TEST_PASSED("Test Passed: %1$s", "Test Passed: %1$s"),
+    TEST_FAILED("Test Failed: %1$s", "Test Failed: %1$s"),
+    TEST_SKIPPED("Test Skipped: %1$s", "Test Skipped: %1$s"),
+    SCREENSHOT("Screenshot: %1$s", "Screenshot: %1$s"),
+    NOTE("%1$s", "%1$s");
+
+    private final String format;
+    private final String failureFormat;
+
+    StepType(String format, String failureFormat) {
+        this.format = format;
+        this.failureFormat = failureFormat;
+    }
+
+    String render(Object detail, Object locator, boolean failed) {
+        return String.format(failed ? failureFormat : format, detail, locator);
+    }
+}
@@ -0,0 +1,63 @@
+package com.insider.state;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-merge-rewrite of the small text files that carry state from one run to the next (test durations, wait
+ * budgets, performance history, verified postings, round-trip budgets).
+ *
+ * The file is locked for the whole update and re-read under the lock, so shards or parallel runs finishing at the
+ * same time on one machine each merge their results into the others' instead of overwriting them.
+ */
+public final class StateFile {
+
+    private StateFile() {
+    }
+
+    /**
+     * Hands the current lines of {@code file} (none if it does not exist yet) to {@code merge} and replaces the file
+     * with what it returns, all under an exclusive file lock. Parent directories are created as needed.
+     */
+    public static void update(Path file, Function<List<String>, String> merge) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                String content = read(channel);
+                List<String> lines = content.isEmpty() ? List.of() : List.of(content.split("\n"));
+
+                byte[] merged = merge.apply(lines).getBytes(StandardCharsets.UTF_8);
+                channel.truncate(0);
+                ByteBuffer out = ByteBuffer.wrap(merged);
+                while (out.hasRemaining()) {
+                    channel.write(out, out.position());
+                }
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    // Through the locked channel itself; on Windows a second handle could not read the locked range
+    private static String read(FileChannel channel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate((int) channel.size());
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, bytes.position()) < 0) {
+                break;
+            }
+        }
+        return new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8);
+    }
+}
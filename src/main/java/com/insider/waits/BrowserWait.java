@@ -0,0 +1,201 @@
+package com.insider.waits;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Wait engine that evaluates conditions inside the browser instead of polling them from Java.
+ *
+ * A condition is a small JavaScript function body that returns a non-null, non-false value once it holds.
+ * It is re-evaluated on every DOM mutation (coalesced to one check per animation frame) plus a slow safety tick,
+ * and the whole wait is a single executeAsyncScript call that returns as soon as the condition becomes true.
+ * WebDriverWait, in comparison, sleeps 500ms between polls and pays one or more round trips per poll.
+ *
+ * Inside the condition body {@code params} holds the extra arguments and {@code state} is an object that survives
+ * between evaluations of the same wait (handy for one-off side effects such as scrolling).
+ */
+public class BrowserWait {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserWait.class);
+
+    // Kept below Selenium's default 30s script timeout so no driver reconfiguration is needed. Longer waits are
+    // split into several calls.
+    private static final long MAX_CALL_MILLIS = 25_000;
+
+    // Pause before starting over on a new document, doubled up to the maximum while navigations keep interrupting
+    private static final long MIN_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 500;
+
+    private static final String ENGINE_TEMPLATE =
+            "var args = arguments, done = args[args.length - 1];" +
+            "var timeoutMs = args[0], stableMs = args[1], params = args[2], state = {};" +
+            "function check() { %s }" +
+            "var finished = false, pending = false, stableTimer = null, lastKey, lastError, observer, timer, tick;" +
+            "function finish(result) {" +
+            "  if (finished) return; finished = true;" +
+            "  if (observer) observer.disconnect();" +
+            "  clearTimeout(timer); clearTimeout(stableTimer); clearInterval(tick);" +
+            "  done(result);" +
+            "}" +
+            "function evaluate() {" +
+            "  if (finished) return;" +
+            "  var value; try { value = check(); lastError = undefined; } catch (e) { value = null; lastError = String(e); }" +
+            "  if (value === null || value === undefined || value === false) {" +
+            "    clearTimeout(stableTimer); stableTimer = null; lastKey = undefined; return;" +
+            "  }" +
+            "  if (!stableMs) { finish({ok: true, value: value}); return; }" +
+            "  var key = JSON.stringify(value);" +
+            "  if (key !== lastKey) {" +
+            "    lastKey = key; clearTimeout(stableTimer);" +
+            "    stableTimer = setTimeout(function() { finish({ok: true, value: value}); }, stableMs);" +
+            "  }" +
+            "}" +
+            "function schedule() {" +
+            "  if (pending || finished) return; pending = true;" +
+            "  var run = function() { pending = false; evaluate(); };" +
+            "  if (document.hidden) setTimeout(run, 16); else requestAnimationFrame(run);" +
+            "}" +
+            "timer = setTimeout(function() { finish({ok: false, error: lastError}); }, timeoutMs);" +
+            "tick = setInterval(schedule, 250);" +
+            "observer = new MutationObserver(schedule);" +
+            "observer.observe(document.documentElement || document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+            "evaluate();";
+
+    private final WebDriver driver;
+    private final Object page;
+
+    public BrowserWait(WebDriver driver) {
+        this(driver, null);
+    }
+
+    /**
+     * @param page page object the waits belong to, reported with each wait's Flight Recorder event
+     */
+    public BrowserWait(WebDriver driver, Object page) {
+        this.driver = driver;
+        this.page = page;
+    }
+
+    /**
+     * Waits until the condition returns a value and returns that value.
+     *
+     * @param description used in the timeout message
+     * @param condition   JavaScript function body, see the class comment
+     * @param timeout     ceiling for the wait; it gets the budget {@link WaitBudgets} learned for {@code description}
+     * @param stableFor   how long the returned value must stay unchanged before the wait resolves; zero resolves at once
+     * @throws TimeoutException if the condition did not hold within the timeout
+     */
+    public Object until(String description, String condition, Duration timeout, Duration stableFor, Object... params) {
+        String script = String.format(ENGINE_TEMPLATE, condition);
+        return WaitBudgets.within(description, timeout, page, budget -> poll(description, script, budget, stableFor, params));
+    }
+
+    private Object poll(String description, String script, Duration budget, Duration stableFor, Object... params) {
+        long deadline = System.currentTimeMillis() + budget.toMillis();
+        long backoff = MIN_BACKOFF_MILLIS;
+        WebDriverException lastError = null;
+        Object conditionError = null;
+
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(script,
+                        Math.min(remaining, MAX_CALL_MILLIS), stableFor.toMillis(), Arrays.asList(params));
+                if (result instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) result).get("ok"))) {
+                    return ((Map<?, ?>) result).get("value");
+                }
+                if (result instanceof Map) {
+                    conditionError = ((Map<?, ?>) result).get("error");
+                }
+            } catch (WebDriverException e) {
+                // Anything but an interrupted script (a broken condition, a closed window or session) will not go
+                // away by asking again
+                if (!isInterrupted(e)) {
+                    throw e;
+                }
+                // A navigation in the middle of the wait unloads the document the script was running in.
+                // Start over on the new document until the deadline, after a short pause for it to load.
+                logger.debug("In-browser wait for {} interrupted, retrying in {} ms: {}", description, backoff, e.getMessage());
+                lastError = e;
+                sleep(description, Math.min(backoff, Math.max(0, deadline - System.currentTimeMillis())));
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+        throw new TimeoutException("Timed out after " + budget.toMillis() + "ms waiting for " + description
+                + (conditionError == null ? "" : " (condition last failed with " + conditionError + ")"), lastError);
+    }
+
+    // The script was cut off by a navigation or ran past the driver's script timeout
+    private static boolean isInterrupted(WebDriverException e) {
+        if (e instanceof ScriptTimeoutException) {
+            return true;
+        }
+        String message = String.valueOf(e.getMessage());
+        return e instanceof JavascriptException && (message.contains("document unloaded")
+                || message.contains("Execution context was destroyed") || message.contains("Cannot find context"));
+    }
+
+    private static void sleep(String description, long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for " + description, e);
+        }
+    }
+
+    /**
+     * Waits until at least {@code minimum} elements match the selector and the count stays unchanged for
+     * {@code stableFor}. Returns the final count.
+     */
+    public int untilStableCount(String cssSelector, int minimum, Duration stableFor, Duration timeout) {
+        Object count = until(minimum + "+ stable '" + cssSelector + "' elements",
+                "var n = document.querySelectorAll(params[0]).length; return n >= params[1] ? n : null;",
+                timeout, stableFor, cssSelector, minimum);
+        return ((Number) count).intValue();
+    }
+
+    /**
+     * Cheap fingerprint of the text and number of elements matching the selector, for use with {@link #untilContentChanged}.
+     */
+    public String contentHash(String cssSelector) {
+        return String.valueOf(((JavascriptExecutor) driver).executeScript(hashFunction() + "return hash(arguments[0]);", cssSelector));
+    }
+
+    /**
+     * Waits until the elements matching the selector have been re-rendered with different content than
+     * {@code previousHash} (as returned by {@link #contentHash}) and the new content is stable for {@code stableFor}.
+     * Returns the new hash.
+     */
+    public String untilContentChanged(String cssSelector, String previousHash, Duration stableFor, Duration timeout) {
+        Object hash = until("content of '" + cssSelector + "' to change",
+                hashFunction() +
+                "if (!document.querySelector(params[0])) return null;" +
+                "var h = hash(params[0]); return h !== params[1] ? h : null;",
+                timeout, stableFor, cssSelector, previousHash);
+        return String.valueOf(hash);
+    }
+
+    private static String hashFunction() {
+        return "function hash(selector) {" +
+               "  var items = document.querySelectorAll(selector), h = 5381;" +
+               "  for (var i = 0; i < items.length; i++) {" +
+               "    var t = items[i].textContent || '';" +
+               "    for (var j = 0; j < t.length; j++) { h = ((h << 5) + h + t.charCodeAt(j)) | 0; }" +
+               "  }" +
+               "  return items.length + ':' + h;" +
+               "}";
+    }
+}
@@ -0,0 +1,295 @@
+package com.insider.waits;
+
+import com.insider.profiling.WaitEvent;
+import com.insider.state.StateFile;
+import org.openqa.selenium.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Timeouts for named waits, learned from how long those waits actually took.
+ *
+ * Every wait reports its latency. Once a wait has {@link #MIN_SAMPLES} samples, its budget becomes the 95th
+ * percentile times {@link #MARGIN} (at least {@link #MIN_BUDGET}), but never more than the timeout the code asks
+ * for, which stays the ceiling. A wait that runs out of a learned budget gets one more try of at most
+ * {@link #RETRY_FACTOR} times that budget ({@link #within}), so a wait that never succeeds fails after a few budgets
+ * rather than the whole ceiling. A wait that times out is recorded with the time it waited, a lower bound of its
+ * latency, so a budget learned on a fast day widens again in later runs. Samples are kept in
+ * -Dwaits.budgetFile (default wait-budgets.tsv) so later runs start from what earlier runs learned; the file is merged
+ * under a lock at exit, so shards add their samples rather than overwrite each other's. -Dwaits.adaptive=false always
+ * uses the ceilings.
+ *
+ * On top of that each test gets one deadline ({@link #startTest}). No wait is given more than the time left until
+ * it, so nested and consecutive waits cannot stack up worst-case timeouts past the test's own limit.
+ */
+public final class WaitBudgets {
+    private static final Logger logger = LoggerFactory.getLogger(WaitBudgets.class);
+
+    static final int MIN_SAMPLES = 5;
+    static final int MAX_SAMPLES = 50;
+    static final double MARGIN = 2.0;
+    static final Duration MIN_BUDGET = Duration.ofSeconds(2);
+    // The retry after a learned budget ran out gets at most this many budgets more
+    static final double RETRY_FACTOR = 1.0;
+
+    private static final boolean adaptive = Boolean.parseBoolean(System.getProperty("waits.adaptive", "true"));
+    private static final Path file = Paths.get(System.getProperty("waits.budgetFile", "wait-budgets.tsv"));
+    private static final Map<String, Samples> samples = new TreeMap<>();
+    private static final ThreadLocal<Long> deadline = new ThreadLocal<>();
+
+    /**
+     * Learned state of one wait, as shown in reports.
+     *
+     * @param budgetMillis what the wait currently gets, or its ceiling while there are too few samples
+     */
+    public record Budget(String name, int samples, long p95Millis, long ceilingMillis, long budgetMillis) {
+    }
+
+    // Latencies in arrival order, oldest dropped first
+    static final class Samples {
+        final long[] millis = new long[MAX_SAMPLES];
+        int count;
+        int next;
+        long ceilingMillis;
+        // Added by this run, merged into the file at exit
+        final List<Long> fresh = new ArrayList<>();
+
+        void add(long value) {
+            millis[next] = value;
+            next = (next + 1) % MAX_SAMPLES;
+            count = Math.min(count + 1, MAX_SAMPLES);
+        }
+
+        long p95() {
+            long[] sorted = Arrays.copyOf(millis, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(count * 0.95) - 1)];
+        }
+
+        long budget() {
+            if (count < MIN_SAMPLES) {
+                return ceilingMillis;
+            }
+            long learned = Math.max(MIN_BUDGET.toMillis(), (long) (p95() * MARGIN));
+            return ceilingMillis > 0 ? Math.min(ceilingMillis, learned) : learned;
+        }
+    }
+
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(WaitBudgets::save, "wait-budgets-save"));
+    }
+
+    private WaitBudgets() {
+    }
+
+    /**
+     * Timeout to use for the wait {@code name}: the learned budget capped at {@code ceiling}, further capped at the
+     * time left until the current test's deadline.
+     *
+     * @throws TimeoutException if the test's deadline has already passed
+     */
+    public static Duration budget(String name, Duration ceiling) {
+        long budgetMillis = ceiling.toMillis();
+        if (adaptive) {
+            synchronized (samples) {
+                Samples s = samples.computeIfAbsent(name, k -> new Samples());
+                s.ceilingMillis = ceiling.toMillis();
+                budgetMillis = s.budget();
+            }
+        }
+        Long testDeadline = deadline.get();
+        if (testDeadline != null) {
+            long remainingMillis = (testDeadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                throw new TimeoutException("Test deadline passed before waiting for " + name);
+            }
+            budgetMillis = Math.min(budgetMillis, remainingMillis);
+        }
+        return Duration.ofMillis(budgetMillis);
+    }
+
+    /**
+     * Runs the wait {@code name} with its budget, see {@link #budget}. {@code attempt} waits at most the duration it is
+     * given and throws TimeoutException otherwise. If a learned budget below the ceiling runs out, the attempt is
+     * repeated once, see {@link #retryBudget}. Either way the time waited is recorded, and the wait is reported to
+     * Flight Recorder as one event.
+     *
+     * @param page page object the wait belongs to, may be null
+     */
+    public static <T> T within(String name, Duration ceiling, Object page, Function<Duration, T> attempt) {
+        Duration budget = budget(name, ceiling);
+        WaitEvent event = WaitEvent.start(name, page, budget.toMillis());
+        long start = System.nanoTime();
+        try {
+            T result;
+            try {
+                result = attempt.apply(budget);
+            } catch (TimeoutException e) {
+                Duration retry = retryBudget(budget, timeLeft(ceiling, start));
+                if (budget.compareTo(ceiling) >= 0 || retry.isZero()) {
+                    throw e;
+                }
+                logger.warn("{} ran out of its learned budget of {} ms, waiting up to {} ms more", name, budget.toMillis(), retry.toMillis());
+                result = attempt.apply(retry);
+            }
+            record(name, elapsedSince(start));
+            event.finish("success");
+            return result;
+        } catch (TimeoutException e) {
+            // Censored: the real latency is at least this long
+            record(name, elapsedSince(start));
+            event.finish("timeout");
+            throw e;
+        } catch (RuntimeException e) {
+            event.finish("failure");
+            throw e;
+        }
+    }
+
+    /**
+     * Reports how long a wait took, or for a wait that timed out how long it waited.
+     */
+    public static void record(String name, Duration elapsed) {
+        synchronized (samples) {
+            Samples s = samples.computeIfAbsent(name, k -> new Samples());
+            s.add(elapsed.toMillis());
+            s.fresh.add(elapsed.toMillis());
+        }
+    }
+
+    /**
+     * Time for the retry after {@code budget} ran out: {@link #RETRY_FACTOR} budgets, but no more than {@code rest},
+     * what is left of the ceiling and of the test's deadline.
+     */
+    static Duration retryBudget(Duration budget, Duration rest) {
+        long retryMillis = (long) (budget.toMillis() * RETRY_FACTOR);
+        return Duration.ofMillis(Math.max(0, Math.min(retryMillis, rest.toMillis())));
+    }
+
+    // What is left of the ceiling since start, capped at the test's deadline
+    private static Duration timeLeft(Duration ceiling, long start) {
+        long leftMillis = ceiling.toMillis() - elapsedSince(start).toMillis();
+        Long testDeadline = deadline.get();
+        if (testDeadline != null) {
+            leftMillis = Math.min(leftMillis, (testDeadline - System.nanoTime()) / 1_000_000);
+        }
+        return Duration.ofMillis(Math.max(0, leftMillis));
+    }
+
+    private static Duration elapsedSince(long start) {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Starts the deadline for the test running on this thread.
+     */
+    public static void startTest(Duration limit) {
+        deadline.set(System.nanoTime() + limit.toNanos());
+    }
+
+    public static void endTest() {
+        deadline.remove();
+    }
+
+    public static List<Budget> snapshot() {
+        List<Budget> budgets = new ArrayList<>();
+        synchronized (samples) {
+            samples.forEach((name, s) -> budgets.add(new Budget(name, s.count, s.count == 0 ? -1 : s.p95(),
+                    s.ceilingMillis, s.budget())));
+        }
+        return budgets;
+    }
+
+    private static void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            parse(Files.readAllLines(file, StandardCharsets.UTF_8), samples);
+        } catch (IOException e) {
+            logger.warn("Could not read wait budgets from {}: {}", file, e.getMessage());
+        }
+    }
+
+    static void parse(List<String> lines, Map<String, Samples> into) {
+        for (String line : lines) {
+            String[] parts = line.split("\t");
+            if (parts.length < 3) {
+                continue;
+            }
+            try {
+                Samples s = new Samples();
+                s.ceilingMillis = Long.parseLong(parts[1]);
+                for (String value : parts[2].split(",")) {
+                    if (!value.isEmpty()) {
+                        s.add(Long.parseLong(value));
+                    }
+                }
+                into.put(parts[0], s);
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed wait budget line: {}", line);
+            }
+        }
+    }
+
+    static String format(Map<String, Samples> all) {
+        StringBuilder out = new StringBuilder();
+        all.forEach((name, s) -> {
+            if (s.count == 0) {
+                return;
+            }
+            out.append(name.replace('\t', ' ').replace('\n', ' ')).append('\t').append(s.ceilingMillis).append('\t');
+            // Oldest first, so reloading keeps the order samples are dropped in
+            for (int i = 0; i < s.count; i++) {
+                int index = (s.next - s.count + i + MAX_SAMPLES) % MAX_SAMPLES;
+                out.append(i == 0 ? "" : ",").append(s.millis[index]);
+            }
+            out.append('\n');
+        });
+        return out.toString();
+    }
+
+    static void save() {
+        Map<String, Samples> fresh = new TreeMap<>();
+        synchronized (samples) {
+            samples.forEach((name, s) -> {
+                if (!s.fresh.isEmpty()) {
+                    fresh.put(name, s);
+                }
+            });
+            if (fresh.isEmpty()) {
+                return;
+            }
+            try {
+                // Re-read under the lock and add only this run's samples, so shards saving together keep each other's
+                StateFile.update(file, lines -> {
+                    Map<String, Samples> merged = new TreeMap<>();
+                    parse(lines, merged);
+                    fresh.forEach((name, s) -> {
+                        Samples target = merged.computeIfAbsent(name, k -> new Samples());
+                        target.ceilingMillis = s.ceilingMillis;
+                        s.fresh.forEach(target::add);
+                    });
+                    return format(merged);
+                });
+                fresh.values().forEach(s -> s.fresh.clear());
+            } catch (IOException e) {
+                logger.warn("Could not save wait budgets to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
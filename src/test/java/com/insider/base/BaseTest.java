@@ -1,19 +1,31 @@
 package com.insider.base;
 
-import org.openqa.selenium.PageLoadStrategy;
+import com.insider.driver.DriverKey;
+import com.insider.driver.DriverPool;
+import com.insider.driver.NetworkMonitor;
+import com.insider.driver.SessionSnapshots;
+import com.insider.fixtures.FixtureRecorder;
+import com.insider.fixtures.FixtureServer;
+import com.insider.fixtures.Recording;
+import com.insider.fixtures.SiteUrls;
+import com.insider.pages.CareersPage;
+import com.insider.pages.QAJobsPage;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * BaseTest class to handle Driver initialization and teardown.
@@ -21,57 +33,124 @@ import java.time.Duration;
  */
 public class BaseTest {
     protected static final Logger logger = LoggerFactory.getLogger(BaseTest.class);
-    
-    // I use ThreadLocal to ensure thread safety when running tests in parallel.
-    // This allows each thread to have its own WebDriver instance.
-    private static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+
+    // Sessions are leased from a shared pool instead of being started per test. The pool binds the lease to the
+    // test thread, so parallel tests still get their own WebDriver instance.
+    private static final DriverPool pool = DriverPool.shared();
+
+    // Where pages come from: live (default), record (live site, traffic captured per test method into the fixtures
+    // folder) or replay (captured traffic served by a local fixture server, no internet needed).
+    private static final String siteMode = System.getProperty("site.mode", "live");
+    private static final Path fixturesRoot = Paths.get(System.getProperty("site.fixtures", "src/test/resources/fixtures"));
+    private static FixtureServer fixtureServer;
 
     @BeforeMethod
     @Parameters({"browser"})
     public void setUp(@Optional("chrome") String browser) {
-        logger.info("Initializing driver for browser: {}", browser);
-        
-        if (browser.equalsIgnoreCase("chrome")) {
-            ChromeOptions options = new ChromeOptions();
-            options.addArguments("--remote-allow-origins=*");
-            options.addArguments("--start-maximized");
-            options.addArguments("--disable-notifications");
-            options.addArguments("--disable-gpu");
-            options.addArguments("--disable-dev-shm-usage");
-            options.addArguments("--no-sandbox");
-            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
-            
-            // Check for headless property, default to false if not set, but can be passed via -Dheadless=true
-            String headless = System.getProperty("headless", "false");
-            if ("true".equalsIgnoreCase(headless)) {
-                options.addArguments("--headless=new");
+        logger.info("Leasing driver for browser: {}", browser);
+        DriverKey key = pool.getFactory().keyFor(browser);
+        WebDriver driver = pool.acquire(key);
+
+        // DevTools network layer: records finished requests for page objects and applies the configured block list
+        NetworkMonitor.attach(driver);
+
+        if (siteMode.equalsIgnoreCase("replay")) {
+            startFixtureServer();
+        } else if (siteMode.equalsIgnoreCase("record")) {
+            FixtureRecorder recorder = FixtureRecorder.attach(driver);
+            if (recorder == null) {
+                throw new IllegalStateException("Recording needs a browser with DevTools support, not " + browser);
             }
-            
-            // I use the default Selenium Manager (Selenium 4.6+) which automatically manages driver binaries.
-            driver.set(new ChromeDriver(options));
-            
-        } else if (browser.equalsIgnoreCase("firefox")) {
-            FirefoxOptions options = new FirefoxOptions();
-            driver.set(new FirefoxDriver(options));
-        } else {
-            throw new IllegalArgumentException("Browser not supported: " + browser);
+            recorder.start();
         }
-
-        getDriver().manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        getDriver().manage().timeouts().pageLoadTimeout(Duration.ofSeconds(60));
-        getDriver().manage().window().maximize();
     }
 
     @AfterMethod
-    public void tearDown() {
+    public void tearDown(ITestResult result) {
         if (getDriver() != null) {
-            logger.info("Quitting driver");
-            getDriver().quit();
-            driver.remove();
+            if (siteMode.equalsIgnoreCase("record")) {
+                saveRecording(result.getMethod().getConstructorOrMethod().getMethod());
+            }
+            // A failed test may have left the browser in any state (open dialogs, hung page), so its session is
+            // quit rather than handed to the next test
+            logger.info("Returning driver to pool");
+            pool.release(!result.isSuccess());
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void shutDownDriverPool() {
+        pool.shutdown();
+        synchronized (BaseTest.class) {
+            if (fixtureServer != null) {
+                fixtureServer.close();
+                fixtureServer = null;
+                SiteUrls.useBaseUrl(null);
+            }
         }
     }
 
     public WebDriver getDriver() {
-        return driver.get();
+        return pool.current();
+    }
+
+    /**
+     * Starts the test at the state left by {@code prerequisite}, restoring a session snapshot of it when one is
+     * available (see SessionSnapshots). Snapshots are tied to the site mode and, in replay, to the fixtures served
+     * (not the server's port, which changes every run), so re-recording the fixtures invalidates them. In record mode the flow always runs, to capture its traffic.
+     * Returns true if the state was restored rather than reached by running the flow.
+     */
+    protected boolean startFrom(String snapshotName, Runnable prerequisite) {
+        if (siteMode.equalsIgnoreCase("record")) {
+            prerequisite.run();
+            return false;
+        }
+        String fingerprint = siteMode.toLowerCase();
+        if (siteMode.equalsIgnoreCase("replay")) {
+            fingerprint += "|" + Recording.fingerprint(fixturesRoot);
+        }
+        return SessionSnapshots.startFrom(getDriver(), snapshotName, fingerprint, prerequisite);
+    }
+
+    /**
+     * Job list page reached through the careers page, with the job list loaded. Restored from a snapshot after the
+     * first time.
+     */
+    protected QAJobsPage openQAJobsPage() {
+        // Created before the restore navigates, so it only accepts the jobs API response of the restored page
+        QAJobsPage restoredPage = new QAJobsPage(getDriver());
+        AtomicReference<QAJobsPage> reached = new AtomicReference<>(restoredPage);
+        boolean restored = startFrom("qa-jobs", () -> {
+            CareersPage careersPage = new CareersPage(getDriver());
+            careersPage.open();
+            QAJobsPage qaJobsPage = careersPage.clickSeeAllQAJobs();
+            // Captured only once the list is there, so the snapshot holds the job list URL and its storage
+            qaJobsPage.waitForJobListApiLoad();
+            reached.set(qaJobsPage);
+        });
+        if (restored) {
+            restoredPage.waitForJobListApiLoad();
+        }
+        return reached.get();
+    }
+
+    private static synchronized void startFixtureServer() {
+        if (fixtureServer == null) {
+            try {
+                fixtureServer = new FixtureServer(fixturesRoot);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start fixture server for " + fixturesRoot, e);
+            }
+            SiteUrls.useBaseUrl(fixtureServer.getBaseUrl());
+        }
+    }
+
+    private void saveRecording(Method method) {
+        Path flowDir = fixturesRoot.resolve(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        try {
+            FixtureRecorder.attach(getDriver()).save(flowDir);
+        } catch (IOException e) {
+            logger.error("Could not save recorded traffic to {}", flowDir, e);
+        }
     }
 }
@@ -0,0 +1,79 @@
+package com.insider.pages;
+
+import com.insider.api.ApiPosting;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for the job list vs jobs API comparison. No browser needed.
+ */
+public class JobListDiffTest {
+
+    private static final String LOCATION = "Istanbul, Turkiye";
+    private static final String DEPARTMENT = "Quality Assurance";
+
+    private static final String ID_1 = "0a1b2c3d-1111-4a4a-8b8b-000000000001";
+    private static final String ID_2 = "0a1b2c3d-2222-4a4a-8b8b-000000000002";
+    private static final String ID_3 = "0a1b2c3d-3333-4a4a-8b8b-000000000003";
+
+    @Test(description = "A list that shows exactly the API's matching postings has no differences")
+    public void matchingListIsEmptyDiff() {
+        List<ApiPosting> api = List.of(
+                posting(ID_1, "QA Engineer", LOCATION, DEPARTMENT, ""),
+                // Listed under the team name, which the careers page shows as the department
+                posting(ID_2, "Senior QA Engineer", LOCATION, "Engineering", DEPARTMENT),
+                // Not under the filter, so not expected in the list
+                posting(ID_3, "Backend Engineer", LOCATION, "Engineering", "Backend"));
+        List<JobPosting> rendered = List.of(
+                row(0, "QA Engineer", LOCATION, DEPARTMENT, ID_1),
+                // Upper case id and a query string in the link still pair the row with its posting
+                row(1, "Senior QA Engineer", LOCATION, DEPARTMENT, ID_2.toUpperCase() + "?lever-source=careers"));
+
+        JobListDiff diff = JobListDiff.compare(rendered, api, LOCATION, DEPARTMENT);
+        Assert.assertTrue(diff.isEmpty(), diff.toString());
+    }
+
+    @Test(description = "Missing postings, extra rows and mismatched fields are each reported")
+    public void reportsMissingExtraAndMismatched() {
+        List<ApiPosting> api = List.of(
+                posting(ID_1, "QA Engineer", LOCATION, DEPARTMENT, ""),
+                posting(ID_2, "QA Lead", LOCATION, DEPARTMENT, ""));
+        List<JobPosting> rendered = List.of(
+                row(0, "QA Engineer (old title)", "Ankara, Turkiye", DEPARTMENT, ID_1),
+                row(1, "Backend Engineer", LOCATION, DEPARTMENT, ID_3),
+                row(2, "No link", LOCATION, DEPARTMENT, ""));
+
+        JobListDiff diff = JobListDiff.compare(rendered, api, LOCATION, DEPARTMENT);
+
+        Assert.assertFalse(diff.isEmpty());
+        Assert.assertEquals(diff.missing().size(), 1);
+        Assert.assertEquals(diff.missing().get(0).id(), ID_2);
+        Assert.assertEquals(diff.extra().size(), 2);
+        Assert.assertEquals(diff.extra().get(0).title(), "Backend Engineer");
+        Assert.assertEquals(diff.extra().get(1).title(), "No link");
+        Assert.assertEquals(diff.mismatched().size(), 2, diff.toString());
+        Assert.assertTrue(diff.mismatched().get(0).startsWith("#1 QA Engineer (old title): title"), diff.mismatched().get(0));
+        Assert.assertTrue(diff.mismatched().get(1).contains("location 'Ankara, Turkiye'"), diff.mismatched().get(1));
+        Assert.assertTrue(diff.toString().startsWith("1 missing, 2 extra, 2 mismatched"), diff.toString());
+    }
+
+    @Test(description = "A department that is neither the posting's department nor its team is a mismatch")
+    public void reportsDepartmentMismatch() {
+        List<ApiPosting> api = List.of(posting(ID_1, "QA Engineer", LOCATION, DEPARTMENT, "Testing"));
+        List<JobPosting> rendered = List.of(row(0, "QA Engineer", LOCATION, "Engineering", ID_1));
+
+        JobListDiff diff = JobListDiff.compare(rendered, api, LOCATION, DEPARTMENT);
+        Assert.assertEquals(diff.mismatched().size(), 1, diff.toString());
+        Assert.assertTrue(diff.mismatched().get(0).contains("department 'Engineering'"), diff.mismatched().get(0));
+    }
+
+    private static ApiPosting posting(String id, String title, String location, String department, String team) {
+        return new ApiPosting(id, title, location, List.of(location), department, team, "https://jobs.lever.co/useinsider/" + id);
+    }
+
+    private static JobPosting row(int index, String title, String location, String department, String postingId) {
+        return new JobPosting(index, title, department, location, postingId.isEmpty() ? "" : "https://jobs.lever.co/useinsider/" + postingId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.insider.perf;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the budget lines of perf-budgets.txt. No browser needed.
+ */
+public class PerformanceBudgetTest {
+
+    @Test(description = "A full budget line is parsed into page, metric, limit and severity")
+    public void parsesAFullLine() {
+        PerformanceBudget budget = PerformanceBudget.parse("  home     lcp   <  2.5s    hard ");
+
+        Assert.assertEquals(budget.page(), "home");
+        Assert.assertEquals(budget.metric(), "lcp");
+        Assert.assertFalse(budget.inclusive());
+        Assert.assertEquals(budget.limit(), 2500.0);
+        Assert.assertTrue(budget.hard());
+        Assert.assertEquals(budget.text(), "home lcp < 2.5s hard");
+    }
+
+    @Test(description = "Units, <= and the soft default")
+    public void parsesUnitsAndDefaults() {
+        PerformanceBudget millis = PerformanceBudget.parse("qa-jobs resource:api.lever.co/v0/postings <= 800ms");
+        Assert.assertEquals(millis.metric(), "resource:api.lever.co/v0/postings");
+        Assert.assertEquals(millis.limit(), 800.0);
+        Assert.assertTrue(millis.inclusive());
+        Assert.assertFalse(millis.hard(), "budgets are soft unless marked hard");
+
+        Assert.assertEquals(PerformanceBudget.parse("* transferKb < 1500kb soft").limit(), 1500.0);
+        Assert.assertEquals(PerformanceBudget.parse("home cls<0.1").limit(), 0.1);
+        Assert.assertTrue(PerformanceBudget.parse("home lcp < 2.5s HARD").hard());
+    }
+
+    @Test(description = "Limits are checked with the comparison the line asks for")
+    public void allowsUpToTheLimit() {
+        PerformanceBudget strict = PerformanceBudget.parse("home lcp < 2.5s");
+        PerformanceBudget inclusive = PerformanceBudget.parse("home lcp <= 2.5s");
+
+        Assert.assertTrue(strict.allows(2499));
+        Assert.assertFalse(strict.allows(2500));
+        Assert.assertTrue(inclusive.allows(2500));
+        Assert.assertTrue(PerformanceBudget.parse("* ttfb < 1.5s").appliesTo("careers"));
+        Assert.assertFalse(strict.appliesTo("careers"));
+    }
+
+    @Test(description = "Malformed lines are rejected instead of silently switching a gate off")
+    public void rejectsMalformedLines() {
+        for (String line : new String[]{"home lcp 2.5s", "home lcp < fast", "home lcp < 2.5s strict", "lcp < 2.5s",
+                "home lcp > 2.5s"}) {
+            IllegalArgumentException e = Assert.expectThrows(IllegalArgumentException.class, () -> PerformanceBudget.parse(line));
+            Assert.assertTrue(e.getMessage().contains(line), e.getMessage());
+        }
+    }
+
+    @Test(description = "Hard budgets only fail tests against a stand-in or replay server")
+    public void hardBudgetsAreEnforcedOffTheLiveSiteOnly() {
+        if (System.getProperty("perf.hardBudgets") != null) {
+            throw new SkipException("perf.hardBudgets overrides the mode for this run");
+        }
+        Assert.assertFalse(PerformanceBudget.hardEnforced(true), "a hard budget failed a live run");
+        Assert.assertTrue(PerformanceBudget.hardEnforced(false), "a hard budget was not enforced in replay");
+    }
+}
@@ -0,0 +1,74 @@
+package com.insider.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the ring buffer behind StepRecorder. No browser needed.
+ */
+public class StepBufferTest {
+
+    // A power of two, so the buffer uses exactly this many slots
+    private static final int SLOTS = 32;
+
+    @Test(description = "Steps come out in recording order after the ring has wrapped around")
+    public void drainsInOrderAcrossWraparound() {
+        // A ring of 32 slots, so the second round of 20 steps wraps past the end
+        StepBuffer buffer = new StepBuffer(SLOTS);
+        List<Object> drained = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            buffer.add(StepType.NOTE, 0, "step " + i, System.nanoTime(), false);
+        }
+        buffer.drainTo((test, event) -> drained.add(event.detail()));
+        Assert.assertTrue(buffer.isEmpty());
+
+        for (int i = 20; i < 40; i++) {
+            buffer.add(StepType.NOTE, 0, "step " + i, System.nanoTime(), i % 2 == 0);
+        }
+        List<StepEvent> events = new ArrayList<>();
+        buffer.drainTo((test, event) -> {
+            drained.add(event.detail());
+            events.add(event);
+        });
+
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            expected.add("step " + i);
+        }
+        Assert.assertEquals(drained, expected);
+        Assert.assertTrue(events.get(0).failed(), "failure flag of step 20 was lost");
+        Assert.assertFalse(events.get(1).failed(), "failure flag of step 21 was lost");
+        Assert.assertEquals(events.get(0).thread(), Thread.currentThread().getName());
+        Assert.assertTrue(buffer.isEmpty());
+    }
+
+    @Test(description = "Steps are filed under the test that was current when they were recorded")
+    public void keepsTheTestOfEachStep() {
+        StepBuffer buffer = new StepBuffer(SLOTS);
+        buffer.currentTest = "first";
+        buffer.add(StepType.NOTE, 0, "a", System.nanoTime(), false);
+        buffer.currentTest = "second";
+        buffer.add(StepType.NOTE, 0, "b", System.nanoTime(), false);
+
+        List<Object> tests = new ArrayList<>();
+        buffer.drainTo((test, event) -> tests.add(test));
+        Assert.assertEquals(tests, List.of("first", "second"));
+    }
+
+    @Test(description = "A full ring drains itself instead of overwriting steps that were not drained yet")
+    public void fullRingDrainsItselfBeforeOverwriting() {
+        StepBuffer buffer = new StepBuffer(SLOTS);
+        for (int i = 0; i < SLOTS + 4; i++) {
+            buffer.add(StepType.NOTE, 0, "step " + i, System.nanoTime(), false);
+        }
+
+        // The first 32 went to StepRecorder when the 33rd arrived, so only the last 4 are still in the ring
+        List<Object> drained = new ArrayList<>();
+        buffer.drainTo((test, event) -> drained.add(event.detail()));
+        Assert.assertEquals(drained, List.of("step 32", "step 33", "step 34", "step 35"));
+    }
+}
@@ -19,9 +19,7 @@ public class InsiderTests extends BaseTest {
         // Navigate to QA Careers page and proceed to job listings
         CareersPage careersPage = new CareersPage(getDriver());
         careersPage.open();
-        careersPage.clickSeeAllQAJobs();
-
-        QAJobsPage qaJobsPage = new QAJobsPage(getDriver());
+        QAJobsPage qaJobsPage = careersPage.clickSeeAllQAJobs();
         
         // Wait for the initial API load before filtering
         qaJobsPage.waitForJobListApiLoad();
@@ -35,4 +33,16 @@ public class InsiderTests extends BaseTest {
         // Verify that the 'View Role' button for each job correctly redirects to the Lever application form
         qaJobsPage.clickAllViewRoleButtonsAndVerify();
     }
+
+    @Test(description = "QA Job List Filtering From The Restored Job List Page")
+    public void testQAJobsFromSnapshot() {
+        // Starts at the job list page; after the first run the careers funnel is restored from the 'qa-jobs' snapshot
+        QAJobsPage qaJobsPage = openQAJobsPage();
+
+        // Apply filters for Location (Istanbul) and Department (QA)
+        qaJobsPage.filterJobs("Istanbul, Turkiye", "Quality Assurance");
+
+        // Verify that all listed jobs match the filter criteria (Location, Department, Title)
+        qaJobsPage.verifyJobDetails();
+    }
 }
@@ -1,140 +1,390 @@
 package com.insider.utils;
 
+import com.insider.perf.PageMetrics;
+import com.insider.perf.PerformanceBudget;
+import com.insider.perf.PerformanceHistory;
+import com.insider.profiling.RoundTripBudgets;
+import com.insider.profiling.RoundTrips;
+import com.insider.reporting.Screenshot;
+import com.insider.reporting.ScreenshotPipeline;
+import com.insider.reporting.StepRecorder;
+import com.insider.waits.WaitBudgets;
 import org.testng.*;
 import org.testng.xml.XmlSuite;
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 // Found in the internet and modified to fit the project
-public class CustomReportListener implements IReporter {
+// Rows are streamed to disk as each test finishes (ITestListener) instead of being collected in memory until the end
+// of the suite. The final HTML is assembled from that stream with constant memory, and a JSON-lines sidecar
+// (CustomReport.jsonl, or .jsonl.gz with -Dreport.gzip=true) is written alongside for dashboards. If the JVM dies
+// mid-run, CustomReport-partial.html and the sidecar still hold every result that completed.
+public class CustomReportListener implements IReporter, ITestListener {
+
+    private static final String PARTIAL_FILE = "CustomReport-partial.html";
+
+    private final Object lock = new Object();
+    private File outDir;
+    private File rowsFile;
+    private Writer rows;
+    private Writer jsonLines;
+    private int totalPass;
+    private int totalFail;
+    private int totalSkip;
+
+    @Override
+    public void onStart(ITestContext context) {
+        synchronized (lock) {
+            if (rows != null) {
+                return; // Already streaming, e.g. second <test> of the same suite
+            }
+            // The suite output dir is <outputDirectory>/<suite name>; reports live one level up, like generateReport's
+            outDir = new File(context.getSuite().getOutputDirectory()).getParentFile();
+            outDir.mkdirs();
+            try {
+                rowsFile = new File(outDir, PARTIAL_FILE);
+                rows = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(rowsFile), StandardCharsets.UTF_8));
+                writeHeader(rows, "Test Execution Report (in progress)");
+                rows.write("<table><thead><tr><th>Test Name</th><th>Status</th><th>Duration (ms)</th><th>Steps & Logs</th></tr></thead><tbody>");
+                rows.flush();
+
+                boolean gzip = Boolean.parseBoolean(System.getProperty("report.gzip", "false"));
+                OutputStream json = new FileOutputStream(new File(outDir, gzip ? "CustomReport.jsonl.gz" : "CustomReport.jsonl"));
+                if (gzip) {
+                    json = new GZIPOutputStream(json, true); // sync flush keeps a partial file readable
+                }
+                jsonLines = new BufferedWriter(new OutputStreamWriter(json, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                System.out.println("CustomReportListener: Could not open report stream: " + e.getMessage());
+                rows = null;
+            }
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        append(result, "PASS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        append(result, "FAIL");
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        append(result, "FAIL");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        append(result, "SKIP");
+    }
 
     @Override
     public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
         System.out.println("CustomReportListener: Start generating report...");
         System.out.println("CustomReportListener: Output Directory provided: " + outputDirectory);
-        
+
         // Ensure output directory exists
-        File outDir = new File(outputDirectory);
-        if (!outDir.exists()) {
-            outDir.mkdirs();
+        File reportDir = new File(outputDirectory);
+        if (!reportDir.exists()) {
+            reportDir.mkdirs();
         }
 
-        StringBuilder html = new StringBuilder();
-        
-        // CSS and Header
-        html.append("<!DOCTYPE html><html><head>");
-        html.append("<meta charset='UTF-8'>");
-        html.append("<title>Test Execution Report</title>");
-        html.append("<style>");
-        html.append("body { font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f4f7f6; margin: 0; padding: 20px; }");
-        html.append(".container { max-width: 1000px; margin: 0 auto; background: #fff; padding: 20px; box-shadow: 0 2px 5px rgba(0,0,0,0.1); border-radius: 8px; }");
-        html.append("h1 { color: #333; border-bottom: 2px solid #007bff; padding-bottom: 10px; }");
-        html.append(".summary { display: flex; justify-content: space-around; margin-bottom: 20px; background: #fafafa; padding: 15px; border-radius: 5px; }");
-        html.append(".summary-item { text-align: center; }");
-        html.append(".summary-value { font-size: 24px; font-weight: bold; }");
-        html.append(".pass { color: #28a745; } .fail { color: #dc3545; } .skip { color: #ffc107; }");
-        html.append("table { width: 100%; border-collapse: collapse; margin-top: 20px; }");
-        html.append("th, td { padding: 12px; text-align: left; border-bottom: 1px solid #ddd; }");
-        html.append("th { background-color: #007bff; color: white; }");
-        html.append("tr:hover { background-color: #f1f1f1; }");
-        html.append(".status-pass { background-color: #d4edda; color: #155724; padding: 5px 10px; border-radius: 4px; font-weight: bold; }");
-        html.append(".status-fail { background-color: #f8d7da; color: #721c24; padding: 5px 10px; border-radius: 4px; font-weight: bold; }");
-        html.append(".status-skip { background-color: #fff3cd; color: #856404; padding: 5px 10px; border-radius: 4px; font-weight: bold; }");
-        html.append(".steps { font-family: monospace; font-size: 0.9em; background: #f8f9fa; padding: 10px; border-radius: 4px; border: 1px solid #e9ecef; }");
-        html.append("</style></head><body>");
-        
-        html.append("<div class='container'>");
-        html.append("<h1>Test Execution Report</h1>");
-        html.append("<p>Generated on: ").append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date())).append("</p>");
-
-        int totalPass = 0;
-        int totalFail = 0;
-        int totalSkip = 0;
-
-        // Calculate Summary
-        for (ISuite suite : suites) {
-            Map<String, ISuiteResult> results = suite.getResults();
-            for (ISuiteResult result : results.values()) {
-                ITestContext context = result.getTestContext();
-                totalPass += context.getPassedTests().size();
-                totalFail += context.getFailedTests().size();
-                totalSkip += context.getSkippedTests().size();
+        synchronized (lock) {
+            closeStreams();
+
+            // Write file
+            File reportFile = new File(outputDirectory + File.separator + "CustomReport.html");
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8))) {
+                writeHeader(writer, "Test Execution Report");
+                writer.write("<p>Generated on: " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) + "</p>");
+
+                writer.write("<div class='summary'>");
+                writer.write("<div class='summary-item'><div class='summary-value'>" + (totalPass + totalFail + totalSkip) + "</div><div>Total</div></div>");
+                writer.write("<div class='summary-item'><div class='summary-value pass'>" + totalPass + "</div><div>Passed</div></div>");
+                writer.write("<div class='summary-item'><div class='summary-value fail'>" + totalFail + "</div><div>Failed</div></div>");
+                writer.write("<div class='summary-item'><div class='summary-value skip'>" + totalSkip + "</div><div>Skipped</div></div>");
+                writer.write("</div>");
+
+                // Test Details
+                writer.write("<h2>Test Details</h2>");
+                writer.write("<table>");
+                writer.write("<thead><tr><th>Test Name</th><th>Status</th><th>Duration (ms)</th><th>Steps & Logs</th></tr></thead>");
+                writer.write("<tbody>");
+                copyRows(writer, reportDir);
+                writer.write("</tbody></table>");
+                writeWaitBudgets(writer);
+                writePerformance(writer);
+                writeRoundTrips(writer);
+                writer.write("</div></body></html>");
+
+                System.out.println("Custom HTML Report generated: " + reportFile.getAbsolutePath());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+
+            if (rowsFile != null) {
+                rowsFile.delete();
+            }
+        }
+    }
+
+    private void append(ITestResult result, String status) {
+        synchronized (lock) {
+            if (status.equals("PASS")) totalPass++;
+            else if (status.equals("FAIL")) totalFail++;
+            else totalSkip++;
+
+            if (rows == null) {
+                return;
+            }
+            try {
+                int stepCount = writeRow(rows, result, status);
+                StepRecorder.endTest();
+                rows.write("\n"); // one row per line, so copyRows can stream it back line by line
+                rows.flush();
+                writeJsonLine(jsonLines, result, status, stepCount);
+                jsonLines.flush();
+            } catch (IOException | UncheckedIOException e) {
+                System.out.println("CustomReportListener: Could not append result: " + e.getMessage());
             }
         }
+    }
 
-        html.append("<div class='summary'>");
-        html.append("<div class='summary-item'><div class='summary-value'>").append(totalPass + totalFail + totalSkip).append("</div><div>Total</div></div>");
-        html.append("<div class='summary-item'><div class='summary-value pass'>").append(totalPass).append("</div><div>Passed</div></div>");
-        html.append("<div class='summary-item'><div class='summary-value fail'>").append(totalFail).append("</div><div>Failed</div></div>");
-        html.append("<div class='summary-item'><div class='summary-value skip'>").append(totalSkip).append("</div><div>Skipped</div></div>");
-        html.append("</div>");
+    // Returns the number of steps written
+    private int writeRow(Writer html, ITestResult result, String status) throws IOException {
+        html.write("<tr>");
+        html.write("<td>" + result.getName() + "</td>");
 
-        // Test Details
-        html.append("<h2>Test Details</h2>");
-        html.append("<table>");
-        html.append("<thead><tr><th>Test Name</th><th>Status</th><th>Duration (ms)</th><th>Steps & Logs</th></tr></thead>");
-        html.append("<tbody>");
+        String statusClass = status.equals("PASS") ? "status-pass" : (status.equals("FAIL") ? "status-fail" : "status-skip");
+        html.write("<td><span class='" + statusClass + "'>" + status + "</span></td>");
 
-        for (ISuite suite : suites) {
-            Map<String, ISuiteResult> results = suite.getResults();
-            for (ISuiteResult result : results.values()) {
-                ITestContext context = result.getTestContext();
+        long duration = result.getEndMillis() - result.getStartMillis();
+        html.write("<td>" + duration + "</td>");
 
-                processTestResult(html, context.getPassedTests(), "PASS");
-                processTestResult(html, context.getFailedTests(), "FAIL");
-                processTestResult(html, context.getSkippedTests(), "SKIP");
+        // Steps recorded by BasePage/TestListener are only rendered to text here, streamed one by one from the
+        // step store (which may have spilled them to disk) so a long test never has all of them on the heap
+        html.write("<td><div class='steps'>");
+        int[] count = {0};
+        StepRecorder.forEachStep(result, step -> {
+            if (step.detail() instanceof Screenshot screenshot) {
+                // The file name is only known once the background writer has hashed the image; copyRows fills it in
+                writeStep(html, "<a href='" + screenshot.placeholder() + "'>" + escape(step.render()) + "</a>");
+            } else {
+                // Step text carries locators and typed values, which may well contain '<' or '&'
+                writeStep(html, escape(step.render()));
             }
+            count[0]++;
+        });
+        for (String log : Reporter.getOutput(result)) {
+            writeStep(html, log);
+            count[0]++;
+        }
+        if (count[0] == 0) {
+            html.write("No steps recorded.");
         }
 
-        html.append("</tbody></table>");
-        html.append("</div></body></html>");
+        if (result.getThrowable() != null) {
+            html.write("<br><strong>Error:</strong> " + escape(String.valueOf(result.getThrowable().getMessage())).replace('\n', ' '));
+        }
+
+        html.write("</div></td>");
+        html.write("</tr>");
+        return count[0];
+    }
 
-        // Write file
-        File reportFile = new File(outputDirectory + File.separator + "CustomReport.html");
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(reportFile))) {
-            writer.write(html.toString());
-            System.out.println("Custom HTML Report generated: " + reportFile.getAbsolutePath());
+    private static void writeStep(Writer html, String text) {
+        try {
+            // Newlines would split the row in the stream
+            html.write(text.replace('\n', ' '));
+            html.write("<br>");
         } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private void processTestResult(StringBuilder html, IResultMap resultMap, String status) {
-        Set<ITestResult> results = resultMap.getAllResults();
-        for (ITestResult result : results) {
-            html.append("<tr>");
-            html.append("<td>").append(result.getName()).append("</td>");
-            
-            String statusClass = status.equals("PASS") ? "status-pass" : (status.equals("FAIL") ? "status-fail" : "status-skip");
-            html.append("<td><span class='").append(statusClass).append("'>").append(status).append("</span></td>");
-            
-            long duration = result.getEndMillis() - result.getStartMillis();
-            html.append("<td>").append(duration).append("</td>");
-            
-            // Steps
-            html.append("<td><div class='steps'>");
-            List<String> logs = Reporter.getOutput(result);
-            if (logs.isEmpty()) {
-                html.append("No steps recorded.");
-            } else {
-                for (String log : logs) {
-                    html.append(log).append("<br>"); // <br> is already added in BasePage but good to be safe or just append
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeJsonLine(Writer json, ITestResult result, String status, int stepCount) throws IOException {
+        json.write("{\"suite\":" + quote(result.getTestContext().getSuite().getName())
+                + ",\"test\":" + quote(result.getTestContext().getName())
+                + ",\"class\":" + quote(result.getTestClass().getName())
+                + ",\"name\":" + quote(result.getName())
+                + ",\"status\":" + quote(status)
+                + ",\"start\":" + result.getStartMillis()
+                + ",\"durationMs\":" + (result.getEndMillis() - result.getStartMillis())
+                + ",\"steps\":" + stepCount
+                + ",\"error\":" + (result.getThrowable() == null ? "null" : quote(String.valueOf(result.getThrowable().getMessage())))
+                + "}\n");
+    }
+
+    // Timeouts the waits got in this run, learned from their observed latencies (see WaitBudgets)
+    private static void writeWaitBudgets(Writer writer) throws IOException {
+        List<WaitBudgets.Budget> budgets = WaitBudgets.snapshot();
+        if (budgets.isEmpty()) {
+            return;
+        }
+        writer.write("<h2>Wait Budgets</h2>");
+        writer.write("<table><thead><tr><th>Wait</th><th>Samples</th><th>p95 (ms)</th><th>Ceiling (ms)</th><th>Budget (ms)</th></tr></thead><tbody>");
+        for (WaitBudgets.Budget budget : budgets) {
+            writer.write("<tr><td>" + escape(budget.name()) + "</td><td>" + budget.samples() + "</td><td>"
+                    + (budget.p95Millis() < 0 ? "-" : budget.p95Millis()) + "</td><td>" + budget.ceilingMillis()
+                    + "</td><td>" + budget.budgetMillis() + "</td></tr>");
+        }
+        writer.write("</tbody></table>");
+    }
+
+    // This run's page metrics next to earlier runs (see PerformanceHistory) and their budgets
+    private static void writePerformance(Writer writer) throws IOException {
+        List<PerformanceHistory.Trend> trends = PerformanceHistory.trends();
+        if (trends.isEmpty()) {
+            return;
+        }
+        writer.write("<h2>Page Performance</h2>");
+        writer.write("<table><thead><tr><th>Page</th><th>Metric</th><th>This run</th><th>Last run</th><th>Trend</th><th>Budget</th></tr></thead><tbody>");
+        for (PerformanceHistory.Trend trend : trends) {
+            List<Double> previous = trend.previous();
+            PerformanceBudget budget = PerformanceBudget.find(trend.page(), trend.metric());
+            String budgetCell = "-";
+            if (budget != null) {
+                String statusClass = budget.allows(trend.current()) ? "status-pass" : (budget.hard() ? "status-fail" : "status-skip");
+                budgetCell = "<span class='" + statusClass + "'>" + escape(budget.text()) + "</span>";
+            }
+            writer.write("<tr><td>" + escape(trend.page()) + "</td><td>" + escape(trend.metric()) + "</td><td>"
+                    + PageMetrics.format(trend.current()) + "</td><td>"
+                    + (previous.isEmpty() ? "-" : PageMetrics.format(previous.get(previous.size() - 1))) + "</td><td>"
+                    + sparkline(previous, trend.current()) + "</td><td>" + budgetCell + "</td></tr>");
+        }
+        writer.write("</tbody></table>");
+    }
+
+    // WebDriver commands per page-object flow (see RoundTrips) and their budgets
+    private static void writeRoundTrips(Writer writer) throws IOException {
+        List<RoundTrips.FlowCount> flows = RoundTrips.snapshot();
+        if (flows.isEmpty()) {
+            return;
+        }
+        writer.write("<h2>WebDriver Round Trips</h2>");
+        writer.write("<table><thead><tr><th>Flow</th><th>Commands</th><th>Time (ms)</th><th>Max per test</th><th>Budget</th><th>Most frequent</th></tr></thead><tbody>");
+        for (RoundTrips.FlowCount flow : flows) {
+            long budget = RoundTripBudgets.budget(flow.flow());
+            String budgetCell = "-";
+            if (budget >= 0) {
+                String statusClass = flow.maxPerTest() <= RoundTripBudgets.limit(budget) ? "status-pass" : "status-fail";
+                budgetCell = "<span class='" + statusClass + "'>" + budget + " (limit " + RoundTripBudgets.limit(budget) + ")</span>";
+            }
+            writer.write("<tr><td>" + escape(flow.flow()) + "</td><td>" + flow.commands() + "</td><td>" + flow.millis()
+                    + "</td><td>" + (flow.maxPerTest() == 0 ? "-" : flow.maxPerTest()) + "</td><td>" + budgetCell
+                    + "</td><td>" + escape(flow.topCommands(3)) + "</td></tr>");
+        }
+        writer.write("</tbody></table>");
+    }
+
+    // Earlier runs then this one, scaled between their minimum and maximum
+    private static String sparkline(List<Double> previous, double current) {
+        List<Double> values = new ArrayList<>(previous);
+        values.add(current);
+        double min = values.stream().mapToDouble(Double::doubleValue).min().orElse(0);
+        double max = values.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        String bars = "\u2581\u2582\u2583\u2584\u2585\u2586\u2587\u2588";
+        StringBuilder out = new StringBuilder("<span title='oldest to this run'>");
+        for (double value : values) {
+            int level = max == min ? 0 : (int) Math.round((value - min) / (max - min) * (bars.length() - 1));
+            out.append(bars.charAt(level));
+        }
+        return out.append("</span>").toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private void copyRows(Writer writer, File reportDir) throws IOException {
+        if (rowsFile == null || !rowsFile.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(rowsFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Skip the partial report's own header, only the result rows are copied
+                if (line.startsWith("<tr>")) {
+                    writer.write(ScreenshotPipeline.resolvePlaceholders(line, reportDir.toPath(), Duration.ofSeconds(30)));
                 }
             }
-            
-            if (result.getThrowable() != null) {
-                html.append("<br><strong>Error:</strong> ").append(result.getThrowable().getMessage());
+        }
+    }
+
+    private void closeStreams() {
+        try {
+            if (rows != null) rows.close();
+            if (jsonLines != null) jsonLines.close();
+        } catch (IOException e) {
+            System.out.println("CustomReportListener: Could not close report stream: " + e.getMessage());
+        }
+        rows = null;
+        jsonLines = null;
+    }
+
+    private static void writeHeader(Writer html, String title) throws IOException {
+        // CSS and Header
+        html.write("<!DOCTYPE html><html><head>");
+        html.write("<meta charset='UTF-8'>");
+        html.write("<title>" + title + "</title>");
+        html.write("<style>");
+        html.write("body { font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f4f7f6; margin: 0; padding: 20px; }");
+        html.write(".container { max-width: 1000px; margin: 0 auto; background: #fff; padding: 20px; box-shadow: 0 2px 5px rgba(0,0,0,0.1); border-radius: 8px; }");
+        html.write("h1 { color: #333; border-bottom: 2px solid #007bff; padding-bottom: 10px; }");
+        html.write(".summary { display: flex; justify-content: space-around; margin-bottom: 20px; background: #fafafa; padding: 15px; border-radius: 5px; }");
+        html.write(".summary-item { text-align: center; }");
+        html.write(".summary-value { font-size: 24px; font-weight: bold; }");
+        html.write(".pass { color: #28a745; } .fail { color: #dc3545; } .skip { color: #ffc107; }");
+        html.write("table { width: 100%; border-collapse: collapse; margin-top: 20px; }");
+        html.write("th, td { padding: 12px; text-align: left; border-bottom: 1px solid #ddd; }");
+        html.write("th { background-color: #007bff; color: white; }");
+        html.write("tr:hover { background-color: #f1f1f1; }");
+        html.write(".status-pass { background-color: #d4edda; color: #155724; padding: 5px 10px; border-radius: 4px; font-weight: bold; }");
+        html.write(".status-fail { background-color: #f8d7da; color: #721c24; padding: 5px 10px; border-radius: 4px; font-weight: bold; }");
+        html.write(".status-skip { background-color: #fff3cd; color: #856404; padding: 5px 10px; border-radius: 4px; font-weight: bold; }");
+        html.write(".steps { font-family: monospace; font-size: 0.9em; background: #f8f9fa; padding: 10px; border-radius: 4px; border: 1px solid #e9ecef; }");
+        html.write("</style></head><body>");
+
+        html.write("<div class='container'>");
+        html.write("<h1>" + title + "</h1>");
+        html.write("\n");
+    }
+
+    private static String quote(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
             }
-            
-            html.append("</div></td>");
-            html.append("</tr>");
         }
+        return out.append('"').toString();
     }
-}
\ No newline at end of file
+}
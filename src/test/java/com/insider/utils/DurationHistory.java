@@ -0,0 +1,168 @@
+package com.insider.utils;
+
+import com.insider.state.StateFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Past test method durations, kept in a small tab-separated file (method, average millis, samples).
+ *
+ * New measurements are blended into the stored average, so one slow run moves the estimate but does not replace it.
+ * Shards do not save into the history they are planned from. Each one writes its measurements to a file of its own
+ * ({@link #writeMeasurements}), and {@link #main} merges those into the history after the last shard. Saving takes a
+ * file lock and merges with what is on disk, so two merges at the same time do not overwrite each other's results.
+ */
+public class DurationHistory {
+    private static final Logger logger = LoggerFactory.getLogger(DurationHistory.class);
+
+    // Weight of a new measurement against the stored average
+    private static final double NEW_SAMPLE_WEIGHT = 0.5;
+
+    private final Path file;
+    private final Map<String, long[]> entries = new TreeMap<>();
+
+    private DurationHistory(Path file) {
+        this.file = file;
+    }
+
+    public static DurationHistory load(Path file) {
+        DurationHistory history = new DurationHistory(file);
+        if (Files.exists(file)) {
+            try {
+                history.parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                logger.warn("Could not read test duration history {}: {}", file, e.getMessage());
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Average duration of the method in millis, or -1 if it has never been measured.
+     */
+    public synchronized long estimate(String method) {
+        long[] entry = entries.get(method);
+        return entry == null ? -1 : entry[0];
+    }
+
+    /**
+     * Median of all known averages, used as the estimate for methods without history. Returns {@code fallback} if
+     * the history is empty.
+     */
+    public synchronized long typicalDuration(long fallback) {
+        if (entries.isEmpty()) {
+            return fallback;
+        }
+        List<Long> averages = new ArrayList<>();
+        entries.values().forEach(entry -> averages.add(entry[0]));
+        Collections.sort(averages);
+        return averages.get(averages.size() / 2);
+    }
+
+    /**
+     * Merges the measurements recorded in this run into the file on disk.
+     */
+    public synchronized void save(Map<String, Long> measured) {
+        try {
+            StateFile.update(file, lines -> {
+                DurationHistory onDisk = new DurationHistory(file);
+                onDisk.parse(lines);
+                measured.forEach((method, millis) -> merge(onDisk.entries, method, millis));
+
+                StringBuilder out = new StringBuilder();
+                onDisk.entries.forEach((method, entry) ->
+                        out.append(method).append('\t').append(entry[0]).append('\t').append(entry[1]).append('\n'));
+                entries.clear();
+                entries.putAll(onDisk.entries);
+                return out.toString();
+            });
+        } catch (IOException e) {
+            logger.warn("Could not save test duration history {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one run's measurements (method, millis) to a file of their own, replacing what was there.
+     */
+    public static void writeMeasurements(Path file, Map<String, Long> measured) {
+        StringBuilder out = new StringBuilder();
+        new TreeMap<>(measured).forEach((method, millis) -> out.append(method).append('\t').append(millis).append('\n'));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, out, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not write test durations {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a file written by {@link #writeMeasurements}.
+     */
+    public static Map<String, Long> readMeasurements(Path file) throws IOException {
+        Map<String, Long> measured = new TreeMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t");
+            try {
+                if (parts.length == 2) {
+                    measured.put(parts[0], Long.parseLong(parts[1].trim()));
+                }
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed test duration line: {}", line);
+            }
+        }
+        return measured;
+    }
+
+    /**
+     * Merges the measurement files of all shards into the history, once the last shard is done:
+     * {@code DurationHistory <history> <shard file>...}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: DurationHistory <history file> <shard measurement file>...");
+        }
+        Map<String, Long> measured = new TreeMap<>();
+        for (int i = 1; i < args.length; i++) {
+            measured.putAll(readMeasurements(Paths.get(args[i])));
+        }
+        load(Paths.get(args[0])).save(measured);
+        logger.info("Merged the durations of {} methods from {} shard files into {}", measured.size(), args.length - 1, args[0]);
+    }
+
+    private void parse(List<String> lines) {
+        for (String line : lines) {
+            String[] parts = line.split("\t");
+            if (parts.length < 3) {
+                continue;
+            }
+            try {
+                entries.put(parts[0], new long[]{Long.parseLong(parts[1].trim()), Long.parseLong(parts[2].trim())});
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed duration history line: {}", line);
+            }
+        }
+    }
+
+    private static void merge(Map<String, long[]> target, String method, long millis) {
+        long[] entry = target.get(method);
+        if (entry == null) {
+            target.put(method, new long[]{millis, 1});
+        } else {
+            entry[0] = Math.round(entry[0] * (1 - NEW_SAMPLE_WEIGHT) + millis * NEW_SAMPLE_WEIGHT);
+            entry[1]++;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.insider.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the test duration history the shards are planned from. No browser needed.
+ */
+public class DurationHistoryTest {
+
+    @Test(description = "A new measurement is blended into the stored average instead of replacing it")
+    public void blendsNewMeasurementsIntoTheAverage() throws IOException {
+        Path file = tempFile();
+        DurationHistory.load(file).save(Map.of("a", 1000L));
+        DurationHistory.load(file).save(Map.of("a", 3000L));
+
+        DurationHistory history = DurationHistory.load(file);
+        Assert.assertEquals(history.estimate("a"), 2000);
+        Assert.assertEquals(Files.readAllLines(file, StandardCharsets.UTF_8), List.of("a\t2000\t2"));
+    }
+
+    @Test(description = "Two shards loading the history before either saves keep each other's results")
+    public void mergesWithWhatIsOnDisk() throws IOException {
+        Path file = tempFile();
+        Files.write(file, List.of("shared\t4000\t1"), StandardCharsets.UTF_8);
+        DurationHistory first = DurationHistory.load(file);
+        DurationHistory second = DurationHistory.load(file);
+
+        first.save(Map.of("a", 1000L, "shared", 2000L));
+        second.save(Map.of("b", 5000L, "shared", 6000L));
+
+        DurationHistory merged = DurationHistory.load(file);
+        Assert.assertEquals(merged.estimate("a"), 1000);
+        Assert.assertEquals(merged.estimate("b"), 5000);
+        // 4000 blended with 2000 by the first shard, then with 6000 by the second
+        Assert.assertEquals(merged.estimate("shared"), 4500);
+        // The saving instance also sees the other shard's entries afterwards
+        Assert.assertEquals(second.estimate("a"), 1000);
+    }
+
+    @Test(description = "Methods without history are estimated with the median, and malformed lines are skipped")
+    public void typicalDurationIsTheMedian() throws IOException {
+        Path file = tempFile();
+        Files.write(file, List.of("a\t1000\t1", "b\t9000\t1", "c\t3000\t1", "broken\tline", "d\tnot-a-number\t1"),
+                StandardCharsets.UTF_8);
+        DurationHistory history = DurationHistory.load(file);
+
+        Assert.assertEquals(history.typicalDuration(60_000), 3000);
+        Assert.assertEquals(history.estimate("unknown"), -1);
+        Assert.assertEquals(history.estimate("d"), -1);
+        Assert.assertEquals(DurationHistory.load(tempFile()).typicalDuration(60_000), 60_000);
+    }
+
+    private static Path tempFile() throws IOException {
+        Path file = Files.createTempFile("test-durations", ".tsv");
+        file.toFile().deleteOnExit();
+        Files.delete(file);
+        return file;
+    }
+}
@@ -0,0 +1,89 @@
+package com.insider.utils;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Runs a Java Flight Recorder recording for the whole suite when -Djfr.record=true is set.
+ *
+ * The recording includes the PageAction and Wait events raised by the page objects. It is dumped to target/jfr
+ * whenever a test fails or is skipped with an error (everything recorded up to that point) and, with
+ * -Djfr.dumpAlways=true, at the end of the suite as well. Open the files in JDK Mission Control to see where a slow
+ * run spent its time.
+ */
+public class FlightRecorderListener implements ISuiteListener, ITestListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderListener.class);
+
+    private final boolean enabled = Boolean.parseBoolean(System.getProperty("jfr.record", "false"));
+    private final Path dumpDir = Paths.get(System.getProperty("jfr.dir", "target/jfr"));
+    private Recording recording;
+
+    @Override
+    public synchronized void onStart(ISuite suite) {
+        if (!enabled || recording != null) {
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(System.getProperty("jfr.settings", "default")));
+            recording.enable("com.insider.PageAction");
+            recording.enable("com.insider.Wait");
+            recording.setName(suite.getName());
+            recording.start();
+            logger.info("Flight Recorder started for suite: {}", suite.getName());
+        } catch (IOException | ParseException e) {
+            logger.warn("Could not start Flight Recorder: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        dump(result.getTestClass().getRealClass().getSimpleName() + "." + result.getName() + "-failed");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        // Skipped because setup failed (e.g. no browser) is a failure worth a dump too
+        if (result.getThrowable() != null) {
+            dump(result.getTestClass().getRealClass().getSimpleName() + "." + result.getName() + "-skipped");
+        }
+    }
+
+    @Override
+    public synchronized void onFinish(ISuite suite) {
+        if (recording == null) {
+            return;
+        }
+        if (Boolean.parseBoolean(System.getProperty("jfr.dumpAlways", "false"))) {
+            dump(suite.getName().replaceAll("\\W+", "_"));
+        }
+        recording.close();
+        recording = null;
+    }
+
+    private synchronized void dump(String name) {
+        if (recording == null) {
+            return;
+        }
+        Path file = dumpDir.resolve(name + "-" + System.currentTimeMillis() + ".jfr");
+        try {
+            Files.createDirectories(dumpDir);
+            recording.dump(file);
+            logger.info("Flight recording dumped to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Could not dump Flight recording: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.insider.utils;
+
+import com.insider.profiling.RoundTripBudgets;
+import com.insider.profiling.RoundTrips;
+import com.insider.reporting.StepRecorder;
+import com.insider.reporting.StepType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+
+/**
+ * Counts the WebDriver commands of every test method per flow (see RoundTrips) and checks them against the
+ * round-trip budgets. A test that passed but has a flow over its budget is turned into a failure, so the build fails
+ * like it would on a broken assertion. With -Droundtrips.updateBudgets=true the budgets are recorded at the end of
+ * the suite instead.
+ */
+public class RoundTripListener implements IInvokedMethodListener, ISuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoundTripListener.class);
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        if (method.isTestMethod()) {
+            RoundTrips.startTest();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        List<RoundTrips.FlowCount> flows = RoundTrips.endTest();
+        if (flows.isEmpty()) {
+            return;
+        }
+        logger.info("Round trips of {}: {}", result.getName(), flows);
+        StepRecorder.note(StepType.NOTE, "Round trips: " + flows);
+
+        List<RoundTripBudgets.Violation> violations = RoundTripBudgets.check(flows);
+        if (violations.isEmpty()) {
+            return;
+        }
+        if (result.getStatus() == ITestResult.SUCCESS) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError("Round-trip budgets exceeded: " + violations));
+        } else {
+            logger.warn("Round-trip budgets exceeded in {}: {}", result.getName(), violations);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (RoundTripBudgets.updating()) {
+            RoundTripBudgets.record(RoundTrips.snapshot());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.insider.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Splits the test methods into -Dshard.count shards and runs only shard -Dshard.index (0-based) in this JVM.
+ *
+ * Methods are assigned longest-processing-time-first: sorted by their expected duration, each one goes to the shard
+ * with the least work so far, so all shards end at about the same time. Within a shard the methods run longest first
+ * as well, which keeps the suite's threads evenly loaded. Expected durations come from the history file
+ * (-Dshard.history, default test-durations.tsv); methods without history get the median of the known ones, or
+ * -Dshard.defaultSeconds when nothing has been measured yet.
+ *
+ * The assignment depends only on the method names and the history, so each shard can be started on its own (one
+ * surefire run per CI node, or several local runs) as long as all of them see the same history file. That is why a
+ * shard never writes the history: its durations go to a file of its own (-Dshard.measurements, by default
+ * target/test-durations-shard-N.tsv for shard N), and {@link DurationHistory#main} merges those files into the
+ * history once every shard is done.
+ */
+public class ShardInterceptor implements IMethodInterceptor, ISuiteListener, ITestListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardInterceptor.class);
+
+    private final int shardCount;
+    private final int shardIndex;
+    private final long defaultMillis;
+    private final Path historyFile;
+    private final Path measurementsFile;
+    private final Map<String, Long> measured = new ConcurrentHashMap<>();
+    private DurationHistory history;
+
+    public ShardInterceptor() {
+        this(Integer.getInteger("shard.count", 1), Integer.getInteger("shard.index", 0),
+                Long.getLong("shard.defaultSeconds", 60) * 1000, Paths.get(System.getProperty("shard.history", "test-durations.tsv")),
+                Paths.get(System.getProperty("shard.measurements",
+                        "target/test-durations-shard-" + Integer.getInteger("shard.index", 0) + ".tsv")));
+    }
+
+    // For unit tests, which must not depend on the system properties of the run
+    ShardInterceptor(int shardCount, int shardIndex, long defaultMillis, Path historyFile, Path measurementsFile) {
+        this.shardCount = Math.max(1, shardCount);
+        this.shardIndex = shardIndex;
+        this.defaultMillis = defaultMillis;
+        this.historyFile = historyFile;
+        this.measurementsFile = measurementsFile;
+    }
+
+    @Override
+    public synchronized List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("shard.index must be between 0 and " + (shardCount - 1) + ", was " + shardIndex);
+        }
+        if (history == null) {
+            history = DurationHistory.load(historyFile);
+        }
+        long typical = history.typicalDuration(defaultMillis);
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        Map<IMethodInstance, Long> estimates = new IdentityHashMap<>();
+        for (IMethodInstance method : ordered) {
+            long estimate = history.estimate(name(method));
+            estimates.put(method, estimate < 0 ? typical : estimate);
+        }
+        // Ties broken by name so every shard computes the same assignment
+        ordered.sort(Comparator.comparing((IMethodInstance m) -> estimates.get(m)).reversed()
+                .thenComparing(ShardInterceptor::name));
+
+        long[] load = new long[shardCount];
+        List<IMethodInstance> mine = new ArrayList<>();
+        for (IMethodInstance method : ordered) {
+            int target = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (load[shard] < load[target]) {
+                    target = shard;
+                }
+            }
+            load[target] += estimates.get(method);
+            if (target == shardIndex) {
+                mine.add(method);
+            }
+        }
+
+        if (shardCount > 1) {
+            logger.info("Shard {}/{}: {} of {} methods, estimated {}s (shard estimates: {})", shardIndex + 1, shardCount,
+                    mine.size(), methods.size(), load[shardIndex] / 1000, summarize(load));
+        }
+        return mine;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        measure(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        measure(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!measured.isEmpty()) {
+            DurationHistory.writeMeasurements(measurementsFile, measured);
+            logger.info("Wrote the durations of {} methods to {}, merge them into {} once every shard is done",
+                    measured.size(), measurementsFile, historyFile);
+        }
+    }
+
+    private void measure(ITestResult result) {
+        // Several invocations of one method (data providers, invocationCount) add up, like they do for the shard
+        measured.merge(result.getMethod().getQualifiedName(), result.getEndMillis() - result.getStartMillis(), Long::sum);
+    }
+
+    private static String name(IMethodInstance method) {
+        return method.getMethod().getQualifiedName();
+    }
+
+    private static String summarize(long[] load) {
+        StringBuilder out = new StringBuilder();
+        for (long millis : load) {
+            out.append(out.length() == 0 ? "" : ", ").append(millis / 1000).append('s');
+        }
+        return out.toString();
+    }
+}
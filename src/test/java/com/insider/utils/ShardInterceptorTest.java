@@ -0,0 +1,158 @@
+package com.insider.utils;
+
+import org.testng.Assert;
+import org.testng.IMethodInstance;
+import org.testng.ISuite;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Unit tests for the longest-first shard assignment. No browser needed.
+ */
+public class ShardInterceptorTest {
+
+    @Test(description = "Each method goes to the shard with the least work so far, longest method first")
+    public void assignsLongestFirstToLeastLoadedShard() throws IOException {
+        Path history = history("a\t8000\t1", "b\t7000\t1", "c\t6000\t1", "d\t5000\t1", "e\t4000\t1");
+        List<IMethodInstance> methods = methods("e", "d", "c", "b", "a");
+
+        // a -> 0 (8s), b -> 1 (7s), c -> 1 (13s), d -> 0 (13s), e -> 0 on the tie (17s)
+        Assert.assertEquals(names(shard(history, 2, 0, methods)), List.of("a", "d", "e"));
+        Assert.assertEquals(names(shard(history, 2, 1, methods)), List.of("b", "c"));
+    }
+
+    @Test(description = "Every shard computes the same assignment, whatever order TestNG hands the methods in")
+    public void assignmentIsDeterministic() throws IOException {
+        // Ties and methods without history (they get the median, 5s) are where an unstable order would show
+        Path history = history("a\t5000\t3", "b\t5000\t3", "c\t9000\t1", "d\t2000\t2", "e\t5000\t1");
+        List<IMethodInstance> methods = methods("a", "b", "c", "d", "e", "new1", "new2", "new3");
+        List<IMethodInstance> shuffled = new ArrayList<>(methods);
+        Collections.shuffle(shuffled, new Random(42));
+
+        Set<String> seen = new HashSet<>();
+        int total = 0;
+        for (int shard = 0; shard < 3; shard++) {
+            List<String> names = names(shard(history, 3, shard, methods));
+            Assert.assertEquals(names(shard(history, 3, shard, shuffled)), names, "shard " + shard + " depends on the input order");
+            seen.addAll(names);
+            total += names.size();
+        }
+        Assert.assertEquals(total, methods.size(), "a method was assigned to more than one shard");
+        Assert.assertEquals(seen, new HashSet<>(names(methods)), "a method was assigned to no shard");
+    }
+
+    @Test(description = "An index outside the shard count is rejected instead of running nothing")
+    public void rejectsShardIndexOutOfRange() throws IOException {
+        Path history = history();
+        Assert.assertThrows(IllegalArgumentException.class, () -> shard(history, 2, 2, methods("a")));
+    }
+
+    @Test(description = "A shard that finishes first does not change the plan of a shard that starts later")
+    public void earlierShardDoesNotChangeTheHistoryOfLaterOnes() throws IOException {
+        Path history = history("a\t8000\t1", "b\t7000\t1", "c\t6000\t1", "d\t5000\t1", "e\t4000\t1");
+        List<String> before = Files.readAllLines(history, StandardCharsets.UTF_8);
+        List<IMethodInstance> methods = methods("a", "b", "c", "d", "e");
+
+        ShardInterceptor first = new ShardInterceptor(2, 0, 60_000, history, measurements());
+        List<IMethodInstance> firstShard = first.intercept(methods, null);
+        // Durations far off the history, which would move b and c if the second shard planned from them
+        for (IMethodInstance method : firstShard) {
+            first.onTestSuccess(result(method, 20_000));
+        }
+        first.onFinish((ISuite) null);
+
+        Assert.assertEquals(Files.readAllLines(history, StandardCharsets.UTF_8), before, "a shard rewrote the history");
+        Assert.assertEquals(names(firstShard), List.of("a", "d", "e"));
+        Assert.assertEquals(names(shard(history, 2, 1, methods)), List.of("b", "c"));
+    }
+
+    @Test(description = "The shard files are merged into the history once every shard is done")
+    public void mergesShardFilesIntoTheHistory() throws IOException {
+        Path history = history("a\t8000\t1", "b\t7000\t1");
+        Path firstFile = measurements();
+        Path secondFile = measurements();
+        DurationHistory.writeMeasurements(firstFile, Map.of("a", 4000L));
+        DurationHistory.writeMeasurements(secondFile, Map.of("b", 9000L, "new", 1000L));
+
+        DurationHistory.main(new String[]{history.toString(), firstFile.toString(), secondFile.toString()});
+
+        Assert.assertEquals(Files.readAllLines(history, StandardCharsets.UTF_8),
+                List.of("a\t6000\t2", "b\t8000\t2", "new\t1000\t1"));
+    }
+
+    private static List<IMethodInstance> shard(Path history, int count, int index, List<IMethodInstance> methods)
+            throws IOException {
+        return new ShardInterceptor(count, index, 60_000, history, measurements()).intercept(methods, null);
+    }
+
+    private static Path measurements() throws IOException {
+        Path file = Files.createTempFile("test-durations-shard", ".tsv");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private static ITestResult result(IMethodInstance method, long millis) {
+        return proxy(ITestResult.class, Map.of("getMethod", method.getMethod(), "getStartMillis", 0L, "getEndMillis", millis));
+    }
+
+    private static Path history(String... lines) throws IOException {
+        Path file = Files.createTempFile("test-durations", ".tsv");
+        file.toFile().deleteOnExit();
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<IMethodInstance> methods(String... names) {
+        List<IMethodInstance> methods = new ArrayList<>();
+        for (String name : names) {
+            ITestNGMethod method = proxy(ITestNGMethod.class, "getQualifiedName", name);
+            methods.add(proxy(IMethodInstance.class, "getMethod", method));
+        }
+        return methods;
+    }
+
+    private static List<String> names(List<IMethodInstance> methods) {
+        List<String> names = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            names.add(method.getMethod().getQualifiedName());
+        }
+        return names;
+    }
+
+    private static <T> T proxy(Class<T> type, String getter, Object value) {
+        return proxy(type, Map.of(getter, value));
+    }
+
+    // TestNG's method and result types are large interfaces; the interceptor only calls a few getters on each
+    private static <T> T proxy(Class<T> type, Map<String, Object> getters) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return String.valueOf(getters);
+                default:
+                    if (getters.containsKey(method.getName())) {
+                        return getters.get(method.getName());
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }));
+    }
+}
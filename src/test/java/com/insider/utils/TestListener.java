@@ -1,46 +1,60 @@
 package com.insider.utils;
 
 import com.insider.base.BaseTest;
+import com.insider.profiling.TestNames;
+import com.insider.reporting.ScreenshotPipeline;
+import com.insider.reporting.StepRecorder;
+import com.insider.reporting.StepType;
+import com.insider.waits.WaitBudgets;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
-import org.testng.Reporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+
 public class TestListener implements ITestListener {
 
     private static final Logger logger = LoggerFactory.getLogger(TestListener.class);
 
     @Override
     public void onTestStart(ITestResult result) {
-        logger.info("Test Started: " + result.getName());
-        Reporter.log("Test Started: " + result.getName() + "<br>");
+        // Lifecycle steps go through the StepRecorder, which also logs them
+        StepRecorder.beginTest(result);
+        ScreenshotPipeline.markFailed(null);
+        // One deadline for all waits of the test, so they cannot add up to more than this. A full funnel with the
+        // 'View Role' checks takes a minute or two; three minutes leaves room for a slow day, not for a hung page.
+        WaitBudgets.startTest(Duration.ofSeconds(Long.getLong("test.deadlineSeconds", 180)));
+        TestNames.set(result.getName());
+        StepRecorder.note(StepType.TEST_STARTED, result.getName());
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        logger.info("Test Passed: " + result.getName());
-        Reporter.log("Test Passed: " + result.getName() + "<br>");
+        WaitBudgets.endTest();
+        TestNames.clear();
+        StepRecorder.note(StepType.TEST_PASSED, result.getName());
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
+        WaitBudgets.endTest();
+        TestNames.clear();
         logger.error("Test Failed: " + result.getName());
-        Reporter.log("Test Failed: " + result.getName() + "<br>");
+        StepRecorder.note(StepType.TEST_FAILED, result.getName());
         
         Object testInstance = result.getInstance();
         if (testInstance instanceof BaseTest) {
             WebDriver driver = ((BaseTest) testInstance).getDriver();
             if (driver != null) {
                 logger.info("Taking screenshot for failed test...");
-                
-                
-                // We can attach screenshot path to Reporter if needed, but keeping it simple for now
-                // as native TestNG doesn't embed images easily without HTML modification.
+                // Only the capture happens here; hashing and writing run in the background and CustomReportListener
+                // links the image from the test's steps
+                ScreenshotPipeline.captureFailure(driver, result.getName() + " failed");
             }
         }
     }
@@ -52,7 +66,9 @@ public class TestListener implements ITestListener {
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        logger.info("Test Skipped: " + result.getName());
+        WaitBudgets.endTest();
+        TestNames.clear();
+        StepRecorder.note(StepType.TEST_SKIPPED, result.getName());
     }
 
     @Override
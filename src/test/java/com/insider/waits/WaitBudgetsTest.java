@@ -0,0 +1,102 @@
+package com.insider.waits;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Unit tests for the learned wait budgets (p95 and budget of the sample ring). No browser needed.
+ */
+public class WaitBudgetsTest {
+
+    @Test(description = "Until a wait has MIN_SAMPLES samples, its budget is the ceiling written in the code")
+    public void usesTheCeilingUntilEnoughSamples() {
+        WaitBudgets.Samples samples = samples(10_000);
+        for (int i = 1; i < WaitBudgets.MIN_SAMPLES; i++) {
+            samples.add(100);
+        }
+        Assert.assertEquals(samples.budget(), 10_000);
+
+        samples.add(100);
+        Assert.assertEquals(samples.budget(), WaitBudgets.MIN_BUDGET.toMillis(), "2 x 100ms is below the minimum budget");
+    }
+
+    @Test(description = "The budget is the 95th percentile times the margin, capped at the ceiling")
+    public void budgetIsMarginTimesP95() {
+        WaitBudgets.Samples samples = samples(10_000);
+        for (int i = 1; i <= 20; i++) {
+            samples.add(i * 100);
+        }
+        // 19th of 20 sorted samples
+        Assert.assertEquals(samples.p95(), 1900);
+        Assert.assertEquals(samples.budget(), (long) (1900 * WaitBudgets.MARGIN));
+
+        samples.ceilingMillis = 3000;
+        Assert.assertEquals(samples.budget(), 3000);
+    }
+
+    @Test(description = "Once the ring is full, the oldest samples are dropped first")
+    public void dropsOldestSamplesAfterWraparound() {
+        WaitBudgets.Samples samples = samples(60_000);
+        for (int i = 0; i < WaitBudgets.MAX_SAMPLES; i++) {
+            samples.add(20_000);
+        }
+        Assert.assertEquals(samples.budget(), 40_000);
+
+        // A full ring of fast waits pushes every slow one out, so the budget narrows again
+        for (int i = 0; i < WaitBudgets.MAX_SAMPLES; i++) {
+            samples.add(500);
+        }
+        Assert.assertEquals(samples.count, WaitBudgets.MAX_SAMPLES);
+        Assert.assertEquals(samples.p95(), 500);
+        Assert.assertEquals(samples.budget(), WaitBudgets.MIN_BUDGET.toMillis());
+    }
+
+    @Test(description = "A wrapped ring is saved oldest first and reloads to the same samples")
+    public void wrappedRingSurvivesSaveAndLoad() {
+        WaitBudgets.Samples samples = samples(9000);
+        for (int i = 1; i <= WaitBudgets.MAX_SAMPLES + 10; i++) {
+            samples.add(i);
+        }
+        Map<String, WaitBudgets.Samples> all = new TreeMap<>(Map.of("job list", samples));
+        String saved = WaitBudgets.format(all);
+
+        StringBuilder expected = new StringBuilder("job list\t9000\t");
+        for (int i = 11; i <= WaitBudgets.MAX_SAMPLES + 10; i++) {
+            expected.append(i == 11 ? "" : ",").append(i);
+        }
+        Assert.assertEquals(saved, expected + "\n");
+
+        Map<String, WaitBudgets.Samples> loaded = new TreeMap<>();
+        WaitBudgets.parse(List.of(saved.trim(), "malformed\tline\tx,y"), loaded);
+        Assert.assertEquals(loaded.keySet(), Set.of("job list"));
+        WaitBudgets.Samples reloaded = loaded.get("job list");
+        Assert.assertEquals(reloaded.p95(), samples.p95());
+
+        // The next sample drops the same (oldest) value in both
+        samples.add(1000);
+        reloaded.add(1000);
+        Assert.assertEquals(WaitBudgets.format(Map.of("job list", reloaded)), WaitBudgets.format(Map.of("job list", samples)));
+    }
+
+    @Test(description = "The retry after a learned budget ran out is capped at a few budgets, not the rest of the ceiling")
+    public void retryIsCappedAtTheBudget() {
+        // A 2s budget under a 45s ceiling: a wait that never succeeds gives up after 4s instead of 45s
+        Assert.assertEquals(WaitBudgets.retryBudget(Duration.ofSeconds(2), Duration.ofSeconds(43)),
+                Duration.ofMillis((long) (2000 * WaitBudgets.RETRY_FACTOR)));
+        // Never past the ceiling or the test's deadline
+        Assert.assertEquals(WaitBudgets.retryBudget(Duration.ofSeconds(2), Duration.ofMillis(500)), Duration.ofMillis(500));
+        Assert.assertEquals(WaitBudgets.retryBudget(Duration.ofSeconds(2), Duration.ZERO), Duration.ZERO);
+    }
+
+    private static WaitBudgets.Samples samples(long ceilingMillis) {
+        WaitBudgets.Samples samples = new WaitBudgets.Samples();
+        samples.ceilingMillis = ceilingMillis;
+        return samples;
+    }
+}